@@ -266,6 +266,14 @@ public class Config {
 	@ConfigProperty(category = "cartographer", name = "reportInvalidRequest", comment = "Should invalid height map request be always reported")
 	public static boolean alwaysReportInvalidMapRequests = false;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "cartographer", name = "jobDelay", comment = "Number of ticks between mapping jobs of single cartographer")
+	public static int cartographerJobDelay = 5;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "cartographer", name = "chunksPerJob", comment = "Maximum number of chunks captured for mapping by single cartographer in every job")
+	public static int cartographerChunksPerJob = 1;
+
 	@ConfigProperty(category = "radio", name = "radioVillagerEnabled", comment = "Should add radio villager profession")
 	public static boolean radioVillagerEnabled = true;
 
@@ -281,6 +289,10 @@ public class Config {
 	@ConfigProperty(category = "fan", name = "isRedstoneActivated", comment = "Is fan force controlled by redstone current")
 	public static boolean redstoneActivatedFan = true;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "cannon", name = "volleySize", comment = "Number of stacks fired by cannon on single activation")
+	public static int cannonVolleySize = 1;
+
 	@ConfigProperty(category = "sponge", name = "spongeStickUseCount", comment = "SpongeOnAStick use count")
 	public static int spongeMaxDamage = 256;
 
@@ -339,6 +351,10 @@ public class Config {
 	@ConfigProperty(category = "guide", name = "useAdvancedRenderer", comment = "Try to use advanced OpenGL for performance improvement")
 	public static boolean useAdvancedRenderer = true;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "guide", name = "creativeFillBlocksPerTick", comment = "Maximum number of blocks placed per tick by builder guide in creative fill mode")
+	public static int guideCreativeFillBlocksPerTick = 4096;
+
 	@OnLineModifiable
 	@ConfigProperty(category = "scaffolding", name = "despawnRate", comment = "The rate at which scaffolding should break. 0 - fastest")
 	public static int scaffoldingDespawnRate = 4;
@@ -379,6 +395,14 @@ public class Config {
 	@ConfigProperty(category = "canvas", name = "canvasTexturePoolSize", comment = "Controls number of textures allocated for canvas. Increase if canvas blocks stop rendering properly (get empty sides). To re-apply, reload textures")
 	public static int canvasPoolSize = 256;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "canvas", name = "canvasTextureMaxPoolSize", comment = "Upper limit for canvas texture pool. When pool runs out, it's grown (up to this value) on next texture reload")
+	public static int canvasMaxPoolSize = 4096;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "canvas", name = "textureUploadsPerFrame", comment = "Maximum number of canvas and stencil textures uploaded in single frame. Remaining ones are uploaded in next frames")
+	public static int textureUploadsPerFrame = 64;
+
 	@OnLineModifiable
 	@ConfigProperty(category = "canvas", name = "paintbrushReplacesBlocks", comment = "If true, paintbrush will replace suitable blocks with canvas. Otherwise, it will only try to paint blocks")
 	public static boolean paintbrushReplacesBlocks = true;
@@ -402,6 +426,18 @@ public class Config {
 	@ConfigProperty(category = "placer", name = "actionLimit", comment = "Maximum number of actions that can be performed by block placer in single tick")
 	public static int blockPlacerActionLimit = 16;
 
+	@OnLineModifiable
+	@ConfigProperty(category = "manipulators", name = "actionsPerTick", comment = "Maximum number of queued block breaker and placer actions executed in single world tick")
+	public static int blockManipulatorActionsPerTick = 256;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "manipulators", name = "tickTimeLimit", comment = "Maximum time (in milliseconds) spent on queued block breaker and placer actions in single world tick")
+	public static int blockManipulatorTickTimeLimit = 5;
+
+	@OnLineModifiable
+	@ConfigProperty(category = "manipulators", name = "queueLimit", comment = "Maximum number of block breaker and placer actions waiting for execution in single world. Triggers above that are dropped")
+	public static int blockManipulatorQueueLimit = 4096;
+
 	@ConfigProperty(category = "xpBucket", name = "directFill", comment = "Can bucket be filled with liquid XP directly from any source?")
 	public static boolean xpBucketDirectFill = true;
 
@@ -42,12 +42,14 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.oredict.OreDictionary;
 import net.minecraftforge.registries.IForgeRegistry;
 import openblocks.advancements.Criterions;
+import openblocks.common.BlockChangeWatcher;
 import openblocks.common.CanvasReplaceBlacklist;
 import openblocks.common.CommandInventory;
 import openblocks.common.DonationUrlManager;
 import openblocks.common.ElevatorActionHandler;
 import openblocks.common.ElevatorBlockRules;
 import openblocks.common.EntityEventHandler;
+import openblocks.common.EntityIndex;
 import openblocks.common.FluidXpUtils;
 import openblocks.common.GameRuleManager;
 import openblocks.common.GuideActionHandler;
@@ -149,6 +151,7 @@ import openblocks.common.item.ItemTrophyBlock;
 import openblocks.common.item.ItemWrench;
 import openblocks.common.item.ItemXpBucket;
 import openblocks.common.sync.SyncableBlockLayers;
+import openblocks.common.tileentity.BlockManipulatorScheduler;
 import openblocks.common.tileentity.TileEntityAutoAnvil;
 import openblocks.common.tileentity.TileEntityAutoEnchantmentTable;
 import openblocks.common.tileentity.TileEntityBearTrap;
@@ -698,8 +701,9 @@ public class OpenBlocks {
 		public static void registerNetworkEvents(RegistryEvent.Register<NetworkEventEntry> evt) {
 			NetworkEventManager.startRegistration(evt.getRegistry())
 					.register(MapDataManager.MapDataRequestEvent.class)
+					.register(MapDataManager.MapDataKeepAliveEvent.class)
 					.register(MapDataManager.MapDataResponseEvent.class)
-					.register(MapDataManager.MapUpdatesEvent.class)
+					.register(MapDataManager.MapDataDeltaEvent.class)
 					.register(ElevatorActionEvent.class)
 					.register(PlayerActionEvent.class)
 					.register(GuideActionEvent.class)
@@ -807,6 +811,12 @@ public class OpenBlocks {
 
 		MinecraftForge.EVENT_BUS.register(CanvasReplaceBlacklist.instance);
 
+		MinecraftForge.EVENT_BUS.register(BlockChangeWatcher.instance);
+
+		MinecraftForge.EVENT_BUS.register(EntityIndex.instance);
+
+		MinecraftForge.EVENT_BUS.register(BlockManipulatorScheduler.instance);
+
 		MinecraftForge.EVENT_BUS.register(PlayerInventoryStore.instance);
 
 		MinecraftForge.EVENT_BUS.register(new EntityEventHandler());
@@ -862,6 +872,8 @@ public class OpenBlocks {
 			FlimFlamRegistry.BLACKLIST.init();
 		}
 
+		if (Blocks.autoEnchantmentTable != null) TileEntityAutoEnchantmentTable.initLapisItems();
+
 		if (Blocks.tank != null) {
 			if (Config.allowBucketDrain) {
 				final ContainerBucketFillHandler tankFillHandler = new TileEntityTank.BucketFillHandler();
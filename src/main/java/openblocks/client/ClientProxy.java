@@ -35,6 +35,7 @@ import openblocks.client.renderer.TextureUploader;
 import openblocks.client.renderer.block.PathModel;
 import openblocks.client.renderer.block.canvas.CanvasTextureManager;
 import openblocks.client.renderer.block.canvas.ModelCanvas;
+import openblocks.client.renderer.block.canvas.StencilModelTransformer;
 import openblocks.client.renderer.entity.EntityCartographerRenderer;
 import openblocks.client.renderer.entity.EntityGlyphRenderer;
 import openblocks.client.renderer.entity.EntityHangGliderRenderer;
@@ -157,6 +158,7 @@ public class ClientProxy implements IOpenBlocksProxy {
 
 		if (OpenBlocks.Blocks.canvas != null) {
 			MinecraftForge.EVENT_BUS.register(CanvasTextureManager.INSTANCE);
+			MinecraftForge.EVENT_BUS.register(new StencilModelTransformer.CacheFlushListener());
 		}
 
 		if (OpenBlocks.Items.stencil != null || OpenBlocks.Blocks.canvas != null) {
@@ -6,6 +6,7 @@ import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.client.event.TextureStitchEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import openblocks.Config;
 import openmods.utils.TextureUtils;
 
 public class TextureUploader {
@@ -22,11 +23,16 @@ public class TextureUploader {
 	public void onRenderEnd(RenderWorldLastEvent evt) {
 		TextureUtils.bindTextureToClient(TextureMap.LOCATION_BLOCKS_TEXTURE);
 
+		int budget = Config.textureUploadsPerFrame;
 		Runnable t;
-		while ((t = texturesToUpload.poll()) != null)
+		while (budget-- > 0 && (t = texturesToUpload.poll()) != null)
 			t.run();
 	}
 
+	public int getPendingUploads() {
+		return texturesToUpload.size();
+	}
+
 	@SubscribeEvent
 	public void onTextureStitchEvent(TextureStitchEvent.Pre evt) {
 		texturesToUpload.clear();
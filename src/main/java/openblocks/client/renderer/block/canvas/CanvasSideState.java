@@ -4,9 +4,13 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.relauncher.Side;
@@ -46,31 +50,20 @@ public class CanvasSideState {
 	@Nullable
 	private Optional<OrientedTexture> coverTexture;
 
-	private final int hash;
+	private final Key key;
 
-	private CanvasSideState(int background, List<CanvasLayer> layers, TextureOrientation layersOrientation, Optional<IStencilPattern> cover, TextureOrientation coverOrientation) {
-		this.background = background;
-		this.layers = ImmutableList.copyOf(layers);
-		this.layersOrientation = layersOrientation;
-		this.cover = cover;
-		this.coverOrientation = coverOrientation;
-		this.hash = hash();
-	}
-
-	private int hash() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Ints.hashCode(background);
-		result = prime * result + cover.hashCode();
-		result = prime * result + coverOrientation.hashCode();
-		result = prime * result + layers.hashCode();
-		result = prime * result + layersOrientation.hashCode();
-		return result;
+	private CanvasSideState(Key key) {
+		this.key = key;
+		this.background = key.background;
+		this.layers = key.layers;
+		this.layersOrientation = key.layersOrientation;
+		this.cover = key.cover;
+		this.coverOrientation = key.coverOrientation;
 	}
 
 	@Override
 	public int hashCode() {
-		return hash;
+		return key.hash;
 	}
 
 	@Override
@@ -79,11 +72,7 @@ public class CanvasSideState {
 
 		if (obj instanceof CanvasSideState) {
 			final CanvasSideState other = (CanvasSideState)obj;
-			return this.background == other.background &&
-					this.coverOrientation == other.coverOrientation &&
-					this.cover.equals(other.cover) &&
-					this.layersOrientation == other.layersOrientation &&
-					this.layers.equals(other.layers);
+			return this.key.equals(other.key);
 		}
 		return false;
 	}
@@ -142,22 +131,125 @@ public class CanvasSideState {
 		}
 	}
 
-	// huh, looks weird...
-	private static final Map<CanvasSideState, CanvasSideState> canonicMap = Maps.newHashMap();
+	// Identity of side state. Kept separately, so pool entries don't keep interned states alive
+	private static class Key {
+		private final int background;
+
+		private final List<CanvasLayer> layers;
+
+		private final TextureOrientation layersOrientation;
+
+		private final Optional<IStencilPattern> cover;
+
+		private final TextureOrientation coverOrientation;
+
+		private final int hash;
+
+		public Key(int background, List<CanvasLayer> layers, TextureOrientation layersOrientation, Optional<IStencilPattern> cover, TextureOrientation coverOrientation) {
+			this.background = background;
+			this.layers = ImmutableList.copyOf(layers);
+			this.layersOrientation = layersOrientation;
+			this.cover = cover;
+			this.coverOrientation = coverOrientation;
+			this.hash = hash();
+		}
+
+		private int hash() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + Ints.hashCode(background);
+			result = prime * result + cover.hashCode();
+			result = prime * result + coverOrientation.hashCode();
+			result = prime * result + layers.hashCode();
+			result = prime * result + layersOrientation.hashCode();
+			return result;
+		}
 
-	private synchronized static CanvasSideState getCanonic(CanvasSideState i) {
-		CanvasSideState o = canonicMap.get(i);
-		if (o == null) {
-			canonicMap.put(i, i);
-			o = i;
+		@Override
+		public int hashCode() {
+			return hash;
 		}
 
-		return o;
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+
+			if (obj instanceof Key) {
+				final Key other = (Key)obj;
+				return this.hash == other.hash &&
+						this.background == other.background &&
+						this.coverOrientation == other.coverOrientation &&
+						this.cover.equals(other.cover) &&
+						this.layersOrientation == other.layersOrientation &&
+						this.layers.equals(other.layers);
+			}
+			return false;
+		}
+	}
+
+	private static class PoolEntry extends WeakReference<CanvasSideState> {
+		private final Key key;
+
+		public PoolEntry(CanvasSideState referent, ReferenceQueue<CanvasSideState> queue) {
+			super(referent, queue);
+			this.key = referent.key;
+		}
+	}
+
+	/**
+	 * Canonical instances of side states. Entries are weak, so combinations no longer referenced by any canvas are dropped after GC.
+	 * Lookups don't lock, so render thread is not blocked by chunk loading.
+	 */
+	private static class Pool {
+		private final ConcurrentMap<Key, PoolEntry> entries = Maps.newConcurrentMap();
+
+		private final ReferenceQueue<CanvasSideState> releasedStates = new ReferenceQueue<>();
+
+		public CanvasSideState intern(Key key) {
+			expungeReleased();
+
+			while (true) {
+				final PoolEntry entry = entries.get(key);
+				if (entry != null) {
+					final CanvasSideState existing = entry.get();
+					if (existing != null) return existing;
+
+					// collected, but not expunged yet
+					final CanvasSideState created = new CanvasSideState(key);
+					if (entries.replace(key, entry, new PoolEntry(created, releasedStates))) return created;
+				} else {
+					final CanvasSideState created = new CanvasSideState(key);
+					if (entries.putIfAbsent(key, new PoolEntry(created, releasedStates)) == null) return created;
+				}
+			}
+		}
+
+		private void expungeReleased() {
+			Reference<? extends CanvasSideState> ref;
+			while ((ref = releasedStates.poll()) != null) {
+				final PoolEntry entry = (PoolEntry)ref;
+				entries.remove(entry.key, entry);
+			}
+		}
+
+		public void forEach(Consumer<CanvasSideState> consumer) {
+			for (PoolEntry entry : entries.values()) {
+				final CanvasSideState state = entry.get();
+				if (state != null) consumer.accept(state);
+			}
+		}
+	}
+
+	private static final Pool pool = new Pool();
+
+	// visible for tests
+	static int getPoolSize() {
+		pool.expungeReleased();
+		return pool.entries.size();
 	}
 
 	static void onTextureReload() {
-		for (CanvasSideState k : canonicMap.keySet())
-			k.clearTextures();
+		pool.forEach(CanvasSideState::clearTextures);
 	}
 
 	private void clearTextures() {
@@ -182,12 +274,12 @@ public class CanvasSideState {
 
 		public CanvasSideState withCover(IStencilPattern cover, TextureOrientation rotation) {
 			final Pair<TextureOrientation, List<CanvasLayer>> layers = reorientLayers(this.layers);
-			return getCanonic(new CanvasSideState(background, layers.getRight(), layers.getLeft(), Optional.of(cover), rotation));
+			return pool.intern(new Key(background, layers.getRight(), layers.getLeft(), Optional.of(cover), rotation));
 		}
 
 		public CanvasSideState withoutCover() {
 			final Pair<TextureOrientation, List<CanvasLayer>> layers = reorientLayers(this.layers);
-			return getCanonic(new CanvasSideState(background, layers.getRight(), layers.getLeft(), Optional.empty(), TextureOrientation.R0));
+			return pool.intern(new Key(background, layers.getRight(), layers.getLeft(), Optional.empty(), TextureOrientation.R0));
 		}
 
 		private static Pair<TextureOrientation, List<CanvasLayer>> reorientLayers(List<CanvasLayer> layers) {
@@ -4,13 +4,17 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
-import com.google.common.collect.Table.Cell;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureMap;
@@ -76,7 +80,9 @@ public class CanvasTextureManager {
 
 		private int mipmapLevels;
 
-		private boolean queuedForUpload;
+		private volatile int generation;
+
+		private boolean hasContents;
 
 		private int background;
 
@@ -111,56 +117,115 @@ public class CanvasTextureManager {
 			if (!layers.isEmpty() && layers.get(0).orientation != TextureOrientation.R0)
 				Log.warn("Unoptimized texture: %s!", layers);
 
-			if (!queuedForUpload) {
-				queuedForUpload = true;
-				this.background = background;
-				this.layers = ImmutableList.copyOf(layers);
-				TextureUploader.INSTANCE.scheduleTextureUpload(this::upload);
+			this.background = background;
+			this.layers = ImmutableList.copyOf(layers);
+
+			// slot may still show previous canvas, so clear it until new contents are ready
+			if (hasContents) {
+				hasContents = false;
+				TextureUploader.INSTANCE.scheduleTextureUpload(this::uploadPlaceholder);
 			}
+
+			// older jobs for this slot will be discarded
+			final int generation = ++this.generation;
+			final int atlas = atlasGeneration;
+			final List<CanvasLayer> jobLayers = this.layers;
+
+			COMPOSITION_WORKERS.execute(() -> {
+				final int[] contents = composeTexture(background, jobLayers);
+				TextureUploader.INSTANCE.scheduleTextureUpload(() -> upload(atlas, generation, contents));
+			});
 		}
 
-		private void upload() {
-			queuedForUpload = false;
+		private void uploadPlaceholder() {
+			if (!hasContents) uploadMipmaps(emptyTexture.getContents(mipmapLevels));
+		}
 
-			clearFramesTextureData();
-			int[][] mipmaps = new int[this.mipmapLevels + 1][];
-			final int size = CanvasLayer.TEXTURE_WIDTH * CanvasLayer.TEXTURE_HEIGHT;
-			final int[] contents = mipmaps[0] = new int[size];
-
-			for (int i = 0; i < size; i++) {
-				int color = background;
-				for (CanvasLayer layer : layers) {
-					final int transformedIndex = layer.orientation.rotate16x16(i);
-					color = layer.pattern.mix(transformedIndex, layer.color, color);
-				}
-				contents[i] = color;
-			}
+		private void upload(int atlas, int generation, int[] contents) {
+			if (atlas != atlasGeneration || generation != this.generation) return;
+			hasContents = true;
 
+			// TextureUtil uses shared buffer for mipmap blending, so it must stay on render thread
+			int[][] mipmaps = new int[this.mipmapLevels + 1][];
+			mipmaps[0] = contents;
 			mipmaps = TextureUtil.generateMipmapData(this.mipmapLevels, this.width, mipmaps);
+			uploadMipmaps(mipmaps);
+		}
+
+		private void uploadMipmaps(int[][] mipmaps) {
+			clearFramesTextureData();
 			framesTextureData.add(mipmaps);
+			TextureUtil.uploadTextureMipmap(mipmaps, this.width, this.height, this.originX, this.originY, false, false);
+		}
+	}
 
-			TextureUtil.uploadTextureMipmap(this.framesTextureData.get(0), this.width, this.height, this.originX, this.originY, false, false);
+	private static final ExecutorService COMPOSITION_WORKERS = Executors.newFixedThreadPool(2,
+			new ThreadFactoryBuilder().setNameFormat("OpenBlocks canvas texture worker %d").setDaemon(true).build());
+
+	// incremented on every stitch, so results for sprites from previous atlas are dropped
+	private volatile int atlasGeneration;
+
+	private static int[] composeTexture(int background, List<CanvasLayer> layers) {
+		final int size = CanvasLayer.TEXTURE_WIDTH * CanvasLayer.TEXTURE_HEIGHT;
+		final int[] contents = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			int color = background;
+			for (CanvasLayer layer : layers) {
+				final int transformedIndex = layer.orientation.rotate16x16(i);
+				color = layer.pattern.mix(transformedIndex, layer.color, color);
+			}
+			contents[i] = color;
 		}
+
+		return contents;
 	}
 
 	private final Deque<CanvasTexture> freeTextures = Queues.newArrayDeque();
 
 	private final Table<Integer, List<CanvasLayer>, CanvasTexture> usedTextures = HashBasedTable.create();
 
+	// allocated, but unreferenced textures, least recently used first. Kept, since same canvas may come back into view
+	private final Set<CanvasTexture> idleTextures = Sets.newLinkedHashSet();
+
+	private int poolSize;
+
+	private int requiredPoolSize;
+
+	private int evictions;
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getIdleTextureCount() {
+		return idleTextures.size();
+	}
+
+	public int getEvictions() {
+		return evictions;
+	}
+
 	@SubscribeEvent
 	public void onTextureStitchEvent(TextureStitchEvent.Pre evt) {
 		freeTextures.clear();
 		usedTextures.clear();
+		idleTextures.clear();
 		peakRejectedAllocations = 0;
 		textureLimitReached = false;
+		atlasGeneration++;
 
 		CanvasSideState.onTextureReload();
 
-		if (DEBUG) Log.info("Allocating %s textures", Config.canvasPoolSize);
+		// grow pool to fit number of textures requested before reload
+		poolSize = Math.max(Config.canvasPoolSize, Math.min(requiredPoolSize, Config.canvasMaxPoolSize));
+		requiredPoolSize = 0;
+
+		if (DEBUG) Log.info("Allocating %s textures", poolSize);
 
 		final TextureMap map = evt.getMap();
 		final EmptyTextureData emptyTexture = new EmptyTextureData();
-		for (int i = 0; i < Config.canvasPoolSize; i++) {
+		for (int i = 0; i < poolSize; i++) {
 			final CanvasTexture entry = new CanvasTexture(OpenBlocks.location("canvas-" + i), emptyTexture);
 			map.setTextureEntry(entry);
 			freeTextures.push(entry);
@@ -170,23 +235,21 @@ public class CanvasTextureManager {
 	public ResourceLocation getTexture(int background, List<CanvasLayer> layers) {
 		CanvasTexture allocatedTexture = usedTextures.get(background, layers);
 		if (allocatedTexture != null) {
-			allocatedTexture.referenceCount++;
+			if (allocatedTexture.referenceCount++ <= 0) idleTextures.remove(allocatedTexture);
 			if (DEBUG) Log.info("Incrementing texture %s [%08X:%s]. counter = %d", allocatedTexture.location, background, layers, allocatedTexture.referenceCount);
 			return allocatedTexture.location;
 		}
 
 		allocatedTexture = freeTextures.poll();
-		if (allocatedTexture == null) {
-			tryReclaimTextures();
-			allocatedTexture = freeTextures.poll();
-		}
+		if (allocatedTexture == null) allocatedTexture = evictLeastRecentlyUsed();
 
 		if (allocatedTexture == null) {
-			// TODO pool's empty, clean unreferenced, suggest reload
 			peakRejectedAllocations++;
+			requiredPoolSize = Math.max(requiredPoolSize, 2 * poolSize);
 			if (!textureLimitReached) {
 				textureLimitReached = true;
-				Log.warn("Reached limit of canvas textures, change canvasPoolSize and reload resources (F3+T)");
+				if (poolSize < Config.canvasMaxPoolSize) Log.warn("Reached limit of canvas textures, pool will be increased on next resource reload (F3+T)");
+				else Log.warn("Reached limit of canvas textures, change canvasMaxPoolSize and reload resources (F3+T)");
 			}
 			if (DEBUG) Log.info("Can't load texture [%08X:%s]", background, layers);
 			return White.LOCATION;
@@ -195,33 +258,33 @@ public class CanvasTextureManager {
 		peakRejectedAllocations = 0;
 		allocatedTexture.prepareTexture(background, layers);
 		usedTextures.put(background, layers, allocatedTexture);
-		allocatedTexture.referenceCount++;
+		allocatedTexture.referenceCount = 1;
 
 		if (DEBUG) Log.info("Loaded texture %s [%08X:%s]. counter = %d", allocatedTexture.location, background, layers, allocatedTexture.referenceCount);
 
 		return allocatedTexture.location;
 	}
 
-	private void tryReclaimTextures() {
-		final Iterator<Cell<Integer, List<CanvasLayer>, CanvasTexture>> cells = usedTextures.cellSet().iterator();
-		while (cells.hasNext()) {
-			final Cell<Integer, List<CanvasLayer>, CanvasTexture> cell = cells.next();
-			final CanvasTexture texture = cell.getValue();
-			if (texture.referenceCount <= 0) {
-				cells.remove();
-				texture.referenceCount = 0;
-				freeTextures.push(texture);
-				if (DEBUG) Log.info("Reclaiming texture %s [%08X:%s]", texture.location, cell.getRowKey(), cell.getColumnKey());
-			}
-		}
+	private CanvasTexture evictLeastRecentlyUsed() {
+		final Iterator<CanvasTexture> it = idleTextures.iterator();
+		if (!it.hasNext()) return null;
 
+		final CanvasTexture texture = it.next();
+		it.remove();
+		usedTextures.remove(texture.background, texture.layers);
+		evictions++;
+		if (DEBUG) Log.info("Reclaiming texture %s [%08X:%s]", texture.location, texture.background, texture.layers);
+		return texture;
 	}
 
 	public void releaseTexture(int background, List<CanvasLayer> layers) {
 		CanvasTexture textureToRelease = usedTextures.get(background, layers);
 		Preconditions.checkNotNull(textureToRelease, "Texture not allocated");
 
-		--textureToRelease.referenceCount;
+		if (--textureToRelease.referenceCount <= 0) {
+			textureToRelease.referenceCount = 0;
+			idleTextures.add(textureToRelease);
+		}
 
 		if (DEBUG) Log.info("Decrementing texture %s [%08X:%s]. counter = %d", textureToRelease.location, background, layers, textureToRelease.referenceCount);
 	}
@@ -1,20 +1,18 @@
 package openblocks.client.renderer.block.canvas;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalNotification;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
-import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import javax.vecmath.Vector2f;
 import javax.vecmath.Vector3f;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -28,6 +26,8 @@ import net.minecraft.util.EnumBlockRenderType;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.client.renderer.block.canvas.CanvasSideState.OrientedTexture;
 import openblocks.client.renderer.block.canvas.RenderLayerCache.LayerRenderInfo;
 import openmods.geometry.FaceClassifier;
@@ -87,6 +87,57 @@ public class StencilModelTransformer {
 		}
 	}
 
+	// identity of inputs is enough - base quads and sprites don't change until next model bake
+	private static class RetexturedQuadKey {
+		private final BakedQuad quad;
+		private final EnumFacing side;
+		private final TextureAtlasSprite texture;
+		private final TextureOrientation orientation;
+
+		public RetexturedQuadKey(BakedQuad quad, EnumFacing side, TextureAtlasSprite texture, TextureOrientation orientation) {
+			this.quad = quad;
+			this.side = side;
+			this.texture = texture;
+			this.orientation = orientation;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(quad);
+			result = prime * result + side.hashCode();
+			result = prime * result + System.identityHashCode(texture);
+			result = prime * result + orientation.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+
+			if (obj instanceof RetexturedQuadKey) {
+				final RetexturedQuadKey other = (RetexturedQuadKey)obj;
+				return this.quad == other.quad &&
+						this.side == other.side &&
+						this.texture == other.texture &&
+						this.orientation == other.orientation;
+			}
+			return false;
+		}
+	}
+
+	private static final int RETEXTURED_QUADS_LIMIT = 16384;
+
+	private static final Cache<RetexturedQuadKey, BakedQuad> RETEXTURED_QUADS = CacheBuilder.newBuilder().maximumSize(RETEXTURED_QUADS_LIMIT).build();
+
+	public static class CacheFlushListener {
+		@SubscribeEvent
+		public void onTextureStitch(TextureStitchEvent.Pre evt) {
+			RETEXTURED_QUADS.invalidateAll();
+		}
+	}
+
 	private final InnerModelInfo baseModel;
 
 	private final Function<ResourceLocation, TextureAtlasSprite> bakedTextureGetter;
@@ -163,99 +214,89 @@ public class StencilModelTransformer {
 				}
 			});
 
+	// reused between quads of single model, since models can be built by multiple threads at once
+	private static class QuadScratch {
+		private final float[] positions = new float[3 * 4];
+
+		private final Vector3f normal = new Vector3f();
+	}
+
 	private List<BakedQuad> prepareQuads(List<BakedQuad> baseQuads, Map<EnumFacing, CanvasSideState> sides, FaceClassifier faceClassifier) {
+		final QuadScratch scratch = new QuadScratch();
 		final List<BakedQuad> result = Lists.newArrayListWithExpectedSize(baseQuads.size());
 		for (BakedQuad input : baseQuads)
-			result.addAll(prepareQuad(input, sides, faceClassifier));
+			prepareQuad(input, sides, faceClassifier, scratch, result);
 
 		return result;
 	}
 
-	private List<BakedQuad> prepareQuad(BakedQuad input, Map<EnumFacing, CanvasSideState> sides, FaceClassifier faceClassifier) {
-		final Vector3f pos[] = new Vector3f[4];
-
-		final VertexFormat format = input.getFormat();
-
+	private void prepareQuad(BakedQuad input, Map<EnumFacing, CanvasSideState> sides, FaceClassifier faceClassifier, QuadScratch scratch, List<BakedQuad> output) {
 		final int[] vertexData = input.getVertexData();
-		final ByteBuffer buffer = ByteBuffer.allocate(vertexData.length * Ints.BYTES);
-		buffer.asIntBuffer().put(vertexData);
-		buffer.limit(vertexData.length * Ints.BYTES);
-
-		final int vertexSize = format.getNextOffset();
+		final int vertexSize = input.getFormat().getIntegerSize();
+		final float[] pos = scratch.positions;
 		for (int i = 0; i < 4; i++) {
-			buffer.position(vertexSize * i);
-			final float x = buffer.getFloat();
-			final float y = buffer.getFloat();
-			final float z = buffer.getFloat();
-
-			pos[i] = new Vector3f(x, y, z);
+			pos[3 * i + 0] = Float.intBitsToFloat(vertexData[vertexSize * i + 0]);
+			pos[3 * i + 1] = Float.intBitsToFloat(vertexData[vertexSize * i + 1]);
+			pos[3 * i + 2] = Float.intBitsToFloat(vertexData[vertexSize * i + 2]);
 		}
-		buffer.rewind();
 
-		final Vector3f quadNormal = calculateNormal(pos);
-		final Optional<EnumFacing> face = faceClassifier.classify(quadNormal);
-		if (!face.isPresent()) return ImmutableList.of(input); // not painted face - return unpainted quad
-
-		final List<BakedQuad> quads = Lists.newArrayList();
+		calculateNormal(pos, scratch.normal);
+		final Optional<EnumFacing> face = faceClassifier.classify(scratch.normal);
+		if (!face.isPresent()) {
+			output.add(input); // not painted face - return unpainted quad
+			return;
+		}
 
 		final CanvasSideState sideInfo = sides.get(face.get());
 
 		if (!sideInfo.isFullCover())
-			quads.add(input);
+			output.add(input);
 
 		if (sideInfo.hasStencils()) {
 			final OrientedTexture layersTextureInfo = sideInfo.getLayersTexture();
-			quads.add(retextureQuad(input, buffer, face.get(), bakedTextureGetter.apply(layersTextureInfo.location), layersTextureInfo.orientation, pos));
+			final TextureAtlasSprite texture = bakedTextureGetter.apply(layersTextureInfo.location);
+			final RetexturedQuadKey key = new RetexturedQuadKey(input, face.get(), texture, layersTextureInfo.orientation);
+			BakedQuad retextured = RETEXTURED_QUADS.getIfPresent(key);
+			if (retextured == null) {
+				retextured = retextureQuad(input, face.get(), texture, layersTextureInfo.orientation, pos);
+				RETEXTURED_QUADS.put(key, retextured);
+			}
+			output.add(retextured);
 		}
-
-		return quads;
 	}
 
-	private static BakedQuad retextureQuad(BakedQuad original, ByteBuffer contents, EnumFacing side, TextureAtlasSprite texture, TextureOrientation orientation, Vector3f[] positions) {
+	private static BakedQuad retextureQuad(BakedQuad original, EnumFacing side, TextureAtlasSprite texture, TextureOrientation orientation, float[] positions) {
 		final VertexFormat format = original.getFormat();
-		final int vertexSize = format.getNextOffset();
-		final int firstTextureOffset = format.getUvOffsetById(0);
-		final StencilTextureProjection projection = new StencilTextureProjection(side);
-		for (int i = 0; i < 4; i++) {
-			final Vector3f position = positions[i];
+		final int vertexSize = format.getIntegerSize();
+		final int firstTextureOffset = format.getUvOffsetById(0) / Ints.BYTES;
 
-			{
-				contents.position(i * vertexSize);
-				contents.putFloat(position.x);
-				contents.putFloat(position.y);
-				contents.putFloat(position.z);
-			}
-
-			{
-				final int shiftedI = orientation.shift(i);
-				contents.position(shiftedI * vertexSize + firstTextureOffset);
+		// only texture coordinates change, rest of vertex data is kept
+		final int[] data = original.getVertexData().clone();
+		for (int i = 0; i < 4; i++) {
+			final float x = positions[3 * i + 0];
+			final float y = positions[3 * i + 1];
+			final float z = positions[3 * i + 2];
 
-				final Vector2f projectedUv = projection.project(position);
-				final float nU = texture.getInterpolatedU(16 * projectedUv.x);
-				contents.putFloat(nU);
-				final float nV = texture.getInterpolatedV(16 * projectedUv.y);
-				contents.putFloat(nV);
-			}
+			final int offset = orientation.shift(i) * vertexSize + firstTextureOffset;
+			data[offset + 0] = Float.floatToRawIntBits(texture.getInterpolatedU(16 * StencilTextureProjection.projectU(side, x, y, z)));
+			data[offset + 1] = Float.floatToRawIntBits(texture.getInterpolatedV(16 * StencilTextureProjection.projectV(side, x, y, z)));
 		}
 
-		final int outputSize = format.getIntegerSize() * 4;
-		final int[] data = new int[outputSize];
-		contents.position(0);
-		contents.asIntBuffer().get(data);
-
 		return new BakedQuad(data, NO_TINT, original.getFace(), texture, original.shouldApplyDiffuseLighting(), format);
 	}
 
-	private static Vector3f calculateNormal(Vector3f[] pos) {
-		final Vector3f a = new Vector3f();
-		a.sub(pos[0], pos[2]);
+	private static void calculateNormal(float[] pos, Vector3f output) {
+		// (p0 - p2) x (p1 - p3)
+		final float ax = pos[0] - pos[6];
+		final float ay = pos[1] - pos[7];
+		final float az = pos[2] - pos[8];
 
-		final Vector3f b = new Vector3f();
-		b.sub(pos[1], pos[3]);
+		final float bx = pos[3] - pos[9];
+		final float by = pos[4] - pos[10];
+		final float bz = pos[5] - pos[11];
 
-		a.cross(a, b);
-		a.normalize();
-		return a;
+		output.set(ay * bz - az * by, az * bx - ax * bz, ax * by - ay * bx);
+		output.normalize();
 	}
 
 	private List<BakedQuad> addStencilCovers(AxisAlignedBB bounds, Map<EnumFacing, CanvasSideState> sides) {
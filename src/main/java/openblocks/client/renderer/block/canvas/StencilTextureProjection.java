@@ -1,31 +1,39 @@
 package openblocks.client.renderer.block.canvas;
 
-import javax.vecmath.Vector2f;
-import javax.vecmath.Vector3f;
 import net.minecraft.util.EnumFacing;
 
 public class StencilTextureProjection {
 
-	private final EnumFacing side;
-
-	public StencilTextureProjection(EnumFacing side) {
-		this.side = side;
+	public static float projectU(EnumFacing side, float x, float y, float z) {
+		switch (side) {
+			case NORTH:
+				return 1 - x;
+			case SOUTH:
+				return x;
+			case EAST:
+				return 1 - z;
+			case WEST:
+				return z;
+			case UP:
+				return x;
+			case DOWN:
+				return x;
+			default:
+				throw new AssertionError(side);
+		}
 	}
 
-	public Vector2f project(Vector3f position) {
+	public static float projectV(EnumFacing side, float x, float y, float z) {
 		switch (side) {
 			case NORTH:
-				return new Vector2f(1 - position.x, 1 - position.y);
 			case SOUTH:
-				return new Vector2f(position.x, 1 - position.y);
 			case EAST:
-				return new Vector2f(1 - position.z, 1 - position.y);
 			case WEST:
-				return new Vector2f(position.z, 1 - position.y);
+				return 1 - y;
 			case UP:
-				return new Vector2f(position.x, position.z);
+				return z;
 			case DOWN:
-				return new Vector2f(position.x, 1 - position.z);
+				return 1 - z;
 			default:
 				throw new AssertionError(side);
 		}
@@ -3,13 +3,8 @@ package openblocks.client.renderer.tileentity;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BlockRendererDispatcher;
@@ -19,11 +14,7 @@ import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.client.renderer.vertex.VertexFormatElement;
-import net.minecraft.client.renderer.vertex.VertexFormatElement.EnumUsage;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.IBlockAccess;
-import net.minecraftforge.client.MinecraftForgeClient;
 import net.minecraftforge.client.event.ModelBakeEvent;
 import net.minecraftforge.client.model.animation.FastTESR;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -39,180 +30,123 @@ public class TileEntityImaginaryRenderer extends FastTESR<TileEntityImaginary> {
 	private static final int BYTES_PER_INT = 4;
 	private static final int VERTICES_PER_QUAD = 4;
 
-	private static class RenderInfo {
-		public final double x;
-		public final double y;
-		public final double z;
-
-		public final float r;
-		public final float g;
-		public final float b;
-		public final float a;
-
-		public RenderInfo(double x, double y, double z, float r, float g, float b, float a) {
-			this.x = x;
-			this.y = y;
-			this.z = z;
-			this.r = r;
-			this.g = g;
-			this.b = b;
-			this.a = a;
+	// output layout, same as DefaultVertexFormats.BLOCK
+	private static final int OUTPUT_VERTEX_SIZE = DefaultVertexFormats.BLOCK.getIntegerSize();
+	private static final int OUTPUT_POSITION = 0;
+	private static final int OUTPUT_COLOR = 3;
+	private static final int OUTPUT_TEXTURE = 4;
+	private static final int OUTPUT_LIGHTMAP = 6;
+
+	private static final int FULL_BRIGHTNESS = 0x00F000F0;
+	private static final int WHITE = 0xFFFFFFFF;
+
+	/**
+	 * Model vertices already packed in output format. Only positions and colors are patched (in place) during rendering.
+	 * Renderer is only called from render thread, so buffer can be reused between tiles.
+	 */
+	private static class BakedVertices {
+		private final int[] buffer;
+		private final float[] positions;
+		private final int[] colors;
+		private final int vertexCount;
+
+		public BakedVertices(int[] buffer, float[] positions, int[] colors) {
+			this.buffer = buffer;
+			this.positions = positions;
+			this.colors = colors;
+			this.vertexCount = colors.length;
 		}
-
-	}
-
-	private interface IVertexElementWriter {
-		public void write(ByteBuffer output, RenderInfo info);
 	}
 
-	private static class VertexWriter {
-		private final IVertexElementWriter[] writers;
+	private static int getElementOffset(VertexFormat format, VertexFormatElement element) {
+		for (int i = 0; i < format.getElementCount(); i++)
+			if (format.getElement(i).equals(element)) return format.getOffset(i) / BYTES_PER_INT;
 
-		public VertexWriter(IVertexElementWriter[] writers) {
-			this.writers = writers;
-		}
-
-		public void write(BufferBuilder buffer, RenderInfo info) {
-			final ByteBuffer outputBuffer = buffer.getByteBuffer();
-			for (IVertexElementWriter writer : writers)
-				writer.write(outputBuffer, info);
-
-			buffer.endVertex();
-		}
+		return -1;
 	}
 
-	private static Map<VertexFormatElement, Integer> createElementOffsetMap(VertexFormat format) {
-		ImmutableMap.Builder<VertexFormatElement, Integer> builder = ImmutableMap.builder();
-
-		for (int i = 0; i < format.getElementCount(); i++) {
-			VertexFormatElement vfe = format.getElement(i);
-			if (vfe.getUsage() != EnumUsage.PADDING)
-				builder.put(vfe, format.getOffset(i));
-		}
-
-		return builder.build();
-	}
-
-	private static void convertQuad(BakedQuad quad, List<VertexWriter> output) {
-		final VertexFormat inputFormat = quad.getFormat();
-		final Map<VertexFormatElement, Integer> inputFormatMap = createElementOffsetMap(inputFormat);
-
-		final int[] vertexData = quad.getVertexData();
-		ByteBuffer inputBuffer = ByteBuffer.allocate(vertexData.length * BYTES_PER_INT);
-		inputBuffer.asIntBuffer().put(vertexData);
-		inputBuffer.clear();
+	private static BakedVertices bakeQuads(List<BakedQuad> quads) {
+		final int vertexCount = quads.size() * VERTICES_PER_QUAD;
+		final int[] template = new int[vertexCount * OUTPUT_VERTEX_SIZE];
+		final float[] positions = new float[vertexCount * 3];
+		final int[] colors = new int[vertexCount];
 
-		final Integer positionOffset = inputFormatMap.get(DefaultVertexFormats.POSITION_3F);
-		if (positionOffset == null) throw new AssertionError("Invalid format: " + inputFormat);
-
-		final Integer colorOffset = inputFormatMap.get(DefaultVertexFormats.COLOR_4UB);
-
-		final Integer textureOffset = inputFormatMap.get(DefaultVertexFormats.TEX_2F);
-		if (textureOffset == null) throw new AssertionError("Invalid format: " + inputFormat);
+		int vertex = 0;
+		for (BakedQuad quad : quads) {
+			final VertexFormat inputFormat = quad.getFormat();
+			final int positionOffset = getElementOffset(inputFormat, DefaultVertexFormats.POSITION_3F);
+			if (positionOffset < 0) throw new AssertionError("Invalid format: " + inputFormat);
 
-		final int vertexSize = inputFormat.getIntegerSize() * BYTES_PER_INT;
-		int vertexOffset = 0;
-		for (int i = 0; i < VERTICES_PER_QUAD; i++) {
+			final int colorOffset = getElementOffset(inputFormat, DefaultVertexFormats.COLOR_4UB);
 
-			IVertexElementWriter[] vertexWriters = new IVertexElementWriter[4];
-			// BLOCK.addElement(POSITION_3F);
-			vertexWriters[0] = createPositionWriter(inputBuffer, vertexOffset + positionOffset);
+			final int textureOffset = getElementOffset(inputFormat, DefaultVertexFormats.TEX_2F);
+			if (textureOffset < 0) throw new AssertionError("Invalid format: " + inputFormat);
 
-			// BLOCK.addElement(COLOR_4UB);
-			vertexWriters[1] = colorOffset != null
-					? createColorWriter(inputBuffer, vertexOffset + colorOffset)
-					: FIXED_COLOR_WRITER;
+			final int[] vertexData = quad.getVertexData();
+			final int inputVertexSize = inputFormat.getIntegerSize();
 
-			// BLOCK.addElement(TEX_2F);
-			vertexWriters[2] = createTextureWriter(inputBuffer, vertexOffset + textureOffset);
+			for (int i = 0; i < VERTICES_PER_QUAD; i++, vertex++) {
+				final int input = i * inputVertexSize;
+				final int output = vertex * OUTPUT_VERTEX_SIZE;
 
-			// BLOCK.addElement(TEX_2S);
-			vertexWriters[3] = FIXED_BRIGHTNESS_WRITER;
+				positions[vertex * 3 + 0] = Float.intBitsToFloat(vertexData[input + positionOffset + 0]);
+				positions[vertex * 3 + 1] = Float.intBitsToFloat(vertexData[input + positionOffset + 1]);
+				positions[vertex * 3 + 2] = Float.intBitsToFloat(vertexData[input + positionOffset + 2]);
 
-			output.add(new VertexWriter(vertexWriters));
+				colors[vertex] = colorOffset >= 0? vertexData[input + colorOffset] : WHITE;
 
-			vertexOffset += vertexSize;
+				template[output + OUTPUT_TEXTURE + 0] = vertexData[input + textureOffset + 0];
+				template[output + OUTPUT_TEXTURE + 1] = vertexData[input + textureOffset + 1];
+				template[output + OUTPUT_LIGHTMAP] = FULL_BRIGHTNESS;
+			}
 		}
-	}
-
-	private static IVertexElementWriter createPositionWriter(ByteBuffer inputBuffer, int position) {
-		inputBuffer.position(position);
-
-		final float x = inputBuffer.getFloat();
-		final float y = inputBuffer.getFloat();
-		final float z = inputBuffer.getFloat();
 
-		return (output, info) -> {
-			output.putFloat((float)(x + info.x));
-			output.putFloat((float)(y + info.y));
-			output.putFloat((float)(z + info.z));
-		};
+		return new BakedVertices(template, positions, colors);
 	}
 
-	private static IVertexElementWriter createColorWriter(ByteBuffer inputBuffer, int position) {
-		inputBuffer.position(position);
-
-		final float inputA = inputBuffer.get() & 0xFF;
-		final float inputB = inputBuffer.get() & 0xFF;
-		final float inputG = inputBuffer.get() & 0xFF;
-		final float inputR = inputBuffer.get() & 0xFF;
-
-		return (output, info) -> {
-			final int alpha = Math.min(0xFF, (int)(inputA * info.a));
-			final int red = Math.min(0xFF, (int)(inputR * info.r));
-			final int green = Math.min(0xFF, (int)(inputG * info.g));
-			final int blue = Math.min(0xFF, (int)(inputB * info.b));
-
-			output.put((byte)red);
-			output.put((byte)green);
-			output.put((byte)blue);
-			output.put((byte)alpha);
-		};
+	private static int multiplyComponent(int color, int shift, float multiplier) {
+		return Math.min(0xFF, (int)(((color >> shift) & 0xFF) * multiplier)) << shift;
 	}
 
-	private static IVertexElementWriter createTextureWriter(ByteBuffer inputBuffer, int position) {
-		inputBuffer.position(position);
-
-		final float u = inputBuffer.getFloat();
-		final float v = inputBuffer.getFloat();
-
-		return (output, info) -> {
-			output.putFloat(u);
-			output.putFloat(v);
-		};
+	// vertex colors are stored as little-endian RGBA, so red is in lowest byte
+	private static int multiplyColor(int color, float r, float g, float b, float a) {
+		return multiplyComponent(color, 0, r) |
+				multiplyComponent(color, 8, g) |
+				multiplyComponent(color, 16, b) |
+				multiplyComponent(color, 24, a);
 	}
 
-	private static final IVertexElementWriter FIXED_COLOR_WRITER = (output, info) -> {
-		output.put((byte)Math.min(0xFF, 0xFF * info.a));
-		output.put((byte)Math.min(0xFF, 0xFF * info.b));
-		output.put((byte)Math.min(0xFF, 0xFF * info.g));
-		output.put((byte)Math.min(0xFF, 0xFF * info.r));
-	};
-
-	private static final IVertexElementWriter FIXED_BRIGHTNESS_WRITER = (output, info) -> output.putInt(0x00F000F0);
-
-	private static void addQuads(List<BakedQuad> quads, List<VertexWriter> output) {
-		for (BakedQuad quad : quads) {
-			convertQuad(quad, output);
+	private static void writeVertices(BufferBuilder buffer, BakedVertices vertices, double x, double y, double z, float r, float g, float b, float a) {
+		final int[] output = vertices.buffer;
+		final float[] positions = vertices.positions;
+		final int[] colors = vertices.colors;
+		for (int vertex = 0; vertex < vertices.vertexCount; vertex++) {
+			final int offset = vertex * OUTPUT_VERTEX_SIZE;
+			output[offset + OUTPUT_POSITION + 0] = Float.floatToRawIntBits((float)(positions[vertex * 3 + 0] + x));
+			output[offset + OUTPUT_POSITION + 1] = Float.floatToRawIntBits((float)(positions[vertex * 3 + 1] + y));
+			output[offset + OUTPUT_POSITION + 2] = Float.floatToRawIntBits((float)(positions[vertex * 3 + 2] + z));
+			output[offset + OUTPUT_COLOR] = multiplyColor(colors[vertex], r, g, b, a);
 		}
+
+		buffer.addVertexData(output);
 	}
 
-	private static final LoadingCache<IBlockState, List<VertexWriter>> MODEL_CACHE = CacheBuilder.newBuilder()
-			.expireAfterAccess(1, TimeUnit.SECONDS)
-			.build(new CacheLoader<IBlockState, List<VertexWriter>>() {
+	// baked models don't change until next model bake
+	private static final LoadingCache<IBlockState, BakedVertices> MODEL_CACHE = CacheBuilder.newBuilder()
+			.build(new CacheLoader<IBlockState, BakedVertices>() {
 				@Override
-				public List<VertexWriter> load(IBlockState state) throws Exception {
+				public BakedVertices load(IBlockState state) throws Exception {
 					if (blockRenderer == null) blockRenderer = Minecraft.getMinecraft().getBlockRendererDispatcher();
 					IBakedModel model = blockRenderer.getBlockModelShapes().getModelForState(state);
 
-					final List<VertexWriter> vertexWriters = Lists.newArrayList();
+					final List<BakedQuad> quads = Lists.newArrayList();
 
 					for (EnumFacing side : EnumFacing.VALUES)
-						addQuads(model.getQuads(state, side, 0), vertexWriters);
+						quads.addAll(model.getQuads(state, side, 0));
 
-					addQuads(model.getQuads(state, null, 0), vertexWriters);
+					quads.addAll(model.getQuads(state, null, 0));
 
-					return ImmutableList.copyOf(vertexWriters);
+					return bakeQuads(quads);
 				}
 			});
 
@@ -250,16 +184,12 @@ public class TileEntityImaginaryRenderer extends FastTESR<TileEntityImaginary> {
 		}
 
 		final float a = te.visibility;
-		final RenderInfo info = new RenderInfo(x, y, z, r, g, b, a);
 
-		BlockPos pos = te.getPos();
-		IBlockAccess world = MinecraftForgeClient.getRegionRenderCache(te.getWorld(), pos);
-		IBlockState state = world.getBlockState(pos).getActualState(world, pos);
+		final IBlockState state = te.getRenderState();
 
 		if (state.getBlock() instanceof BlockImaginary) {
-			final List<VertexWriter> vertexWriters = MODEL_CACHE.getUnchecked(state);
-			for (VertexWriter writer : vertexWriters)
-				writer.write(buffer, info);
+			final BakedVertices vertices = MODEL_CACHE.getUnchecked(state);
+			if (vertices.vertexCount > 0) writeVertices(buffer, vertices, x, y, z, r, g, b, a);
 		}
 	}
 
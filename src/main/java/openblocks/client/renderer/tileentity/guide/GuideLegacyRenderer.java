@@ -8,7 +8,6 @@ import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.WorldVertexBufferUploader;
 import net.minecraft.client.renderer.texture.TextureMap;
-import net.minecraft.util.math.BlockPos;
 import openblocks.common.tileentity.TileEntityGuide;
 import openblocks.shapes.CoordShape;
 import openmods.utils.OptionalInt;
@@ -84,8 +83,8 @@ public class GuideLegacyRenderer implements IGuideRenderer {
 		GlStateManager.glTexEnvi(GL11.GL_TEXTURE_ENV, OpenGlHelper.GL_SOURCE0_ALPHA, GL11.GL_TEXTURE);
 		GlStateManager.glTexEnvi(GL11.GL_TEXTURE_ENV, OpenGlHelper.GL_OPERAND0_ALPHA, GL11.GL_SRC_ALPHA);
 
-		for (BlockPos coord : shape.getCoords())
-			renderMarkerAt(displayList, coord.getX(), coord.getY(), coord.getZ(), scale);
+		for (int i = 0; i < shape.size(); i++)
+			renderMarkerAt(displayList, shape.getX(i), shape.getY(i), shape.getZ(i), scale);
 
 		GlStateManager.setActiveTexture(OpenGlHelper.defaultTexUnit);
 		GlStateManager.disableOutlineMode();
@@ -0,0 +1,175 @@
+package openblocks.common;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+public class BlockChangeWatcher {
+
+	public interface IBlockChangeListener {
+		public void onBlockChanged(BlockPos pos, IBlockState newState);
+	}
+
+	public interface IEntityAddedListener {
+		public void onEntityAdded(Entity entity);
+	}
+
+	public class Watch {
+		private final World world;
+
+		private final int minX;
+		private final int minY;
+		private final int minZ;
+
+		private final int maxX;
+		private final int maxY;
+		private final int maxZ;
+
+		@Nullable
+		private final IBlockChangeListener blockListener;
+
+		@Nullable
+		private final IEntityAddedListener entityListener;
+
+		private Watch(World world, BlockPos min, BlockPos max, @Nullable IBlockChangeListener blockListener, @Nullable IEntityAddedListener entityListener) {
+			this.world = world;
+			this.minX = Math.min(min.getX(), max.getX());
+			this.minY = Math.min(min.getY(), max.getY());
+			this.minZ = Math.min(min.getZ(), max.getZ());
+			this.maxX = Math.max(min.getX(), max.getX());
+			this.maxY = Math.max(min.getY(), max.getY());
+			this.maxZ = Math.max(min.getZ(), max.getZ());
+			this.blockListener = blockListener;
+			this.entityListener = entityListener;
+		}
+
+		private boolean contains(BlockPos pos) {
+			final int x = pos.getX();
+			final int y = pos.getY();
+			final int z = pos.getZ();
+			return minX <= x && x <= maxX &&
+					minY <= y && y <= maxY &&
+					minZ <= z && z <= maxZ;
+		}
+
+		public void remove() {
+			final WorldWatcher watcher = watchers.get(world);
+			if (watcher != null) watcher.remove(this);
+		}
+	}
+
+	private static class WorldWatcher implements IWorldEventListener {
+
+		private final ListMultimap<Long, Watch> chunkWatches = ArrayListMultimap.create();
+
+		private void add(Watch watch) {
+			for (int chunkX = watch.minX >> 4; chunkX <= watch.maxX >> 4; chunkX++)
+				for (int chunkZ = watch.minZ >> 4; chunkZ <= watch.maxZ >> 4; chunkZ++)
+					chunkWatches.put(ChunkPos.asLong(chunkX, chunkZ), watch);
+		}
+
+		private void remove(Watch watch) {
+			for (int chunkX = watch.minX >> 4; chunkX <= watch.maxX >> 4; chunkX++)
+				for (int chunkZ = watch.minZ >> 4; chunkZ <= watch.maxZ >> 4; chunkZ++)
+					chunkWatches.remove(ChunkPos.asLong(chunkX, chunkZ), watch);
+		}
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			final List<Watch> watches = chunkWatches.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+			if (watches.isEmpty()) return;
+
+			// listeners may remove their watches
+			for (Watch watch : ImmutableList.copyOf(watches))
+				if (watch.blockListener != null && watch.contains(pos)) watch.blockListener.onBlockChanged(pos, newState);
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+		@Override
+		public void playRecord(SoundEvent soundIn, BlockPos pos) {}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+		@Override
+		public void onEntityAdded(Entity entity) {
+			final BlockPos pos = entity.getPosition();
+			final List<Watch> watches = chunkWatches.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+			if (watches.isEmpty()) return;
+
+			for (Watch watch : ImmutableList.copyOf(watches))
+				if (watch.entityListener != null && watch.contains(pos)) watch.entityListener.onEntityAdded(entity);
+		}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) {}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+	}
+
+	public static final BlockChangeWatcher instance = new BlockChangeWatcher();
+
+	private final Map<World, WorldWatcher> watchers = Maps.newIdentityHashMap();
+
+	private Watch addWatch(World world, BlockPos min, BlockPos max, @Nullable IBlockChangeListener blockListener, @Nullable IEntityAddedListener entityListener) {
+		WorldWatcher watcher = watchers.get(world);
+		if (watcher == null) {
+			watcher = new WorldWatcher();
+			world.addEventListener(watcher);
+			watchers.put(world, watcher);
+		}
+
+		final Watch watch = new Watch(world, min, max, blockListener, entityListener);
+		watcher.add(watch);
+		return watch;
+	}
+
+	public Watch watch(World world, BlockPos min, BlockPos max, IBlockChangeListener listener) {
+		return addWatch(world, min, max, listener, null);
+	}
+
+	public Watch watchEntities(World world, BlockPos min, BlockPos max, IEntityAddedListener listener) {
+		return addWatch(world, min, max, null, listener);
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		// watchers are server only, map is not safe to touch from client thread
+		if (evt.getWorld().isRemote) return;
+		final WorldWatcher watcher = watchers.remove(evt.getWorld());
+		if (watcher != null) evt.getWorld().removeEventListener(watcher);
+	}
+}
@@ -0,0 +1,160 @@
+package openblocks.common;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * Entity lookup shared by tiles that scan their surroundings every tick.
+ * Entities of requested class are collected from chunk column once per tick, so overlapping queries (like rows of vacuum hoppers) don't have to walk chunk entity lists again.
+ */
+public class EntityIndex {
+
+	public static class Stats {
+		private long queries;
+
+		private long candidates;
+
+		private long matches;
+
+		private void record(int candidates, int matches) {
+			this.queries++;
+			this.candidates += candidates;
+			this.matches += matches;
+		}
+
+		public long getQueries() {
+			return queries;
+		}
+
+		public long getCandidates() {
+			return candidates;
+		}
+
+		public long getMatches() {
+			return matches;
+		}
+
+		public double getAverageCandidates() {
+			return queries > 0? (double)candidates / queries : 0;
+		}
+	}
+
+	private static final Entity[] NO_ENTITIES = new Entity[0];
+
+	// same default as World.getEntitiesWithinAABB
+	private static final Predicate<Entity> NOT_SPECTATING = e -> !(e instanceof EntityPlayer && ((EntityPlayer)e).isSpectator());
+
+	private static class ColumnEntities {
+		private final Map<Class<?>, Entity[]> entitiesByClass = Maps.newHashMap();
+
+		private final Chunk chunk;
+
+		public ColumnEntities(Chunk chunk) {
+			this.chunk = chunk;
+		}
+
+		public Entity[] getEntities(Class<? extends Entity> cls) {
+			Entity[] result = entitiesByClass.get(cls);
+			if (result == null) {
+				final List<Entity> entities = Lists.newArrayList();
+				for (ClassInheritanceMultiMap<Entity> section : chunk.getEntityLists())
+					for (Entity e : section.getByClass(cls))
+						entities.add(e);
+
+				result = entities.isEmpty()? NO_ENTITIES : entities.toArray(new Entity[entities.size()]);
+				entitiesByClass.put(cls, result);
+			}
+
+			return result;
+		}
+	}
+
+	private static class WorldIndex {
+		private long tick = Long.MIN_VALUE;
+
+		private final Map<Long, ColumnEntities> columns = Maps.newHashMap();
+
+		@Nullable
+		public ColumnEntities getColumn(World world, int chunkX, int chunkZ) {
+			final long currentTick = world.getTotalWorldTime();
+			if (currentTick != tick) {
+				columns.clear();
+				tick = currentTick;
+			}
+
+			final long key = ChunkPos.asLong(chunkX, chunkZ);
+			ColumnEntities result = columns.get(key);
+			if (result == null) {
+				final Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+				if (chunk == null) return null;
+				result = new ColumnEntities(chunk);
+				columns.put(key, result);
+			}
+
+			return result;
+		}
+	}
+
+	public static final EntityIndex instance = new EntityIndex();
+
+	// client and integrated server worlds are indexed from different threads
+	private final Map<World, WorldIndex> worlds = new MapMaker().weakKeys().makeMap();
+
+	private WorldIndex getWorldIndex(World world) {
+		return worlds.computeIfAbsent(world, w -> new WorldIndex());
+	}
+
+	public <T extends Entity> List<T> getEntities(World world, Class<T> cls, AxisAlignedBB aabb, @Nullable Stats stats) {
+		return getEntities(world, cls, aabb, NOT_SPECTATING, stats);
+	}
+
+	public <T extends Entity> List<T> getEntities(World world, Class<T> cls, AxisAlignedBB aabb, @Nullable Predicate<? super T> filter, @Nullable Stats stats) {
+		final WorldIndex index = getWorldIndex(world);
+
+		// same margin as World.getEntitiesWithinAABB, since entities are stored in chunk containing their position
+		final int minChunkX = MathHelper.floor((aabb.minX - World.MAX_ENTITY_RADIUS) / 16.0);
+		final int maxChunkX = MathHelper.floor((aabb.maxX + World.MAX_ENTITY_RADIUS) / 16.0);
+		final int minChunkZ = MathHelper.floor((aabb.minZ - World.MAX_ENTITY_RADIUS) / 16.0);
+		final int maxChunkZ = MathHelper.floor((aabb.maxZ + World.MAX_ENTITY_RADIUS) / 16.0);
+
+		final List<T> result = Lists.newArrayList();
+		int candidates = 0;
+
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				final ColumnEntities column = index.getColumn(world, chunkX, chunkZ);
+				if (column == null) continue;
+
+				for (Entity e : column.getEntities(cls)) {
+					candidates++;
+					if (e.getEntityBoundingBox().intersects(aabb)) {
+						final T entity = cls.cast(e);
+						if (filter == null || filter.test(entity)) result.add(entity);
+					}
+				}
+			}
+
+		if (stats != null) stats.record(candidates, result.size());
+		return result;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		worlds.remove(evt.getWorld());
+	}
+}
@@ -2,8 +2,12 @@ package openblocks.common;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidRegistry;
 import net.minecraftforge.fluids.FluidStack;
@@ -66,8 +70,9 @@ public class FluidXpUtils {
 			this.optionalConverter = Optional.of(converter);
 		}
 
-		public boolean matches(FluidStack input) {
-			return fluid.isFluidEqual(input);
+		// fluid itself is already matched by index
+		public boolean matchesTag(FluidStack input) {
+			return fluid.tag == null? input.tag == null : fluid.tag.equals(input.tag);
 		}
 
 	}
@@ -76,8 +81,24 @@ public class FluidXpUtils {
 
 	private static final List<ConversionEntry> converters = Lists.newArrayList();
 
+	private static final Map<Fluid, ConversionEntry[]> convertersByFluid = Maps.newIdentityHashMap();
+
+	private static void addConverter(FluidStack fluid, IFluidXpConverter converter) {
+		final ConversionEntry entry = new ConversionEntry(fluid, converter);
+		converters.add(entry);
+
+		final ConversionEntry[] prev = convertersByFluid.get(fluid.getFluid());
+		if (prev == null) {
+			convertersByFluid.put(fluid.getFluid(), new ConversionEntry[] { entry });
+		} else {
+			final ConversionEntry[] entries = Arrays.copyOf(prev, prev.length + 1);
+			entries[prev.length] = entry;
+			convertersByFluid.put(fluid.getFluid(), entries);
+		}
+	}
+
 	public static void initializeFromConfig() {
-		converters.add(new ConversionEntry(new FluidStack(OpenBlocks.Fluids.xpJuice, 1000), xpJuiceConverter));
+		addConverter(new FluidStack(OpenBlocks.Fluids.xpJuice, 1000), xpJuiceConverter);
 
 		for (String entry : Config.additionalXpFluids) {
 			final String[] fields = entry.split(":");
@@ -102,7 +123,7 @@ public class FluidXpUtils {
 				continue;
 			}
 
-			converters.add(new ConversionEntry(new FluidStack(fluid, 1000), new Linear(xpToFluid)));
+			addConverter(new FluidStack(fluid, 1000), new Linear(xpToFluid));
 		}
 	}
 
@@ -119,13 +140,33 @@ public class FluidXpUtils {
 	public static Optional<IFluidXpConverter> getConverter(FluidStack stack) {
 		if (stack == null) return Optional.empty();
 
-		for (ConversionEntry e : converters) {
-			if (e.matches(stack)) return e.optionalConverter;
+		final ConversionEntry[] entries = convertersByFluid.get(stack.getFluid());
+		if (entries != null) {
+			for (ConversionEntry e : entries)
+				if (e.matchesTag(stack)) return e.optionalConverter;
 		}
 
 		return Optional.empty();
 	}
 
+	/**
+	 * Remembers converter for last seen tank contents. Tanks replace their stack when fluid changes, so identity check is enough.
+	 */
+	public static class ConverterCache {
+		private FluidStack cachedStack;
+
+		private Optional<IFluidXpConverter> cachedConverter = Optional.empty();
+
+		public Optional<IFluidXpConverter> getConverter(@Nullable FluidStack stack) {
+			if (stack != cachedStack) {
+				cachedStack = stack;
+				cachedConverter = FluidXpUtils.getConverter(stack);
+			}
+
+			return cachedConverter;
+		}
+	}
+
 	public static int getMaxPossibleFluidForLevel(int level) {
 		final int xp = EnchantmentUtils.getExperienceForLevel(level);
 		return getMaxPossibleFluidForXp(xp);
@@ -7,6 +7,12 @@ import net.minecraft.world.storage.WorldSavedData;
 
 public class HeightMapData extends WorldSavedData {
 
+	public static final int TILE_SIZE = 8;
+
+	public static final int TILES_PER_SIDE = 64 / TILE_SIZE;
+
+	public static final long ALL_TILES = -1L;
+
 	public static class LayerData {
 		public byte alpha;
 		public byte[] heightMap = new byte[64 * 64];
@@ -35,6 +41,24 @@ public class HeightMapData extends WorldSavedData {
 			output.writeBytes(heightMap);
 			output.writeBytes(colorMap);
 		}
+
+		public void readTileFromStream(PacketBuffer input, int tile) {
+			final int startX = (tile % TILES_PER_SIDE) * TILE_SIZE;
+			final int startY = (tile / TILES_PER_SIDE) * TILE_SIZE;
+			for (int y = startY; y < startY + TILE_SIZE; y++) {
+				input.readBytes(heightMap, y * 64 + startX, TILE_SIZE);
+				input.readBytes(colorMap, y * 64 + startX, TILE_SIZE);
+			}
+		}
+
+		public void writeTileToStream(PacketBuffer output, int tile) {
+			final int startX = (tile % TILES_PER_SIDE) * TILE_SIZE;
+			final int startY = (tile / TILES_PER_SIDE) * TILE_SIZE;
+			for (int y = startY; y < startY + TILE_SIZE; y++) {
+				output.writeBytes(heightMap, y * 64 + startX, TILE_SIZE);
+				output.writeBytes(colorMap, y * 64 + startX, TILE_SIZE);
+			}
+		}
 	}
 
 	public final static HeightMapData INVALID = new HeightMapData(-1, false) {
@@ -89,6 +113,30 @@ public class HeightMapData extends WorldSavedData {
 		return false;
 	}
 
+	public static long getTiles(int minX, int minY, int size) {
+		long result = 0;
+		for (int tileY = minY / TILE_SIZE; tileY <= (minY + size - 1) / TILE_SIZE; tileY++)
+			for (int tileX = minX / TILE_SIZE; tileX <= (minX + size - 1) / TILE_SIZE; tileX++)
+				result |= 1L << (tileY * TILES_PER_SIDE + tileX);
+		return result;
+	}
+
+	public static int getTileDataSize(int layerCount, long tiles) {
+		return layerCount * Long.bitCount(tiles) * TILE_SIZE * TILE_SIZE * 2;
+	}
+
+	public void readTilesFromStream(PacketBuffer input, long tiles) {
+		for (LayerData layer : layers)
+			for (int tile = 0; tile < Long.SIZE; tile++)
+				if ((tiles & (1L << tile)) != 0) layer.readTileFromStream(input, tile);
+	}
+
+	public void writeTilesToStream(PacketBuffer output, long tiles) {
+		for (LayerData layer : layers)
+			for (int tile = 0; tile < Long.SIZE; tile++)
+				if ((tiles & (1L << tile)) != 0) layer.writeTileToStream(output, tile);
+	}
+
 	@Override
 	public void readFromNBT(NBTTagCompound tag) {
 		dimension = tag.getInteger("Dimension");
@@ -0,0 +1,173 @@
+package openblocks.common;
+
+import javax.annotation.Nullable;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Biomes;
+import net.minecraft.init.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Immutable copy of upper part of chunk, deep enough to contain first opaque block of every column.
+ * Captured on server thread, can be safely read by mapping workers.
+ */
+public class MapChunkSnapshot implements IBlockAccess {
+
+	private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+	private final WorldType worldType;
+
+	private final int baseX;
+
+	private final int baseZ;
+
+	private final IBlockState[][] sections;
+
+	private final int topSection;
+
+	private final int bottomSection;
+
+	private final byte[] biomes;
+
+	private MapChunkSnapshot(WorldType worldType, int baseX, int baseZ, IBlockState[][] sections, int topSection, int bottomSection, byte[] biomes) {
+		this.worldType = worldType;
+		this.baseX = baseX;
+		this.baseZ = baseZ;
+		this.sections = sections;
+		this.topSection = topSection;
+		this.bottomSection = bottomSection;
+		this.biomes = biomes;
+	}
+
+	private static int index(int x, int y, int z) {
+		return (y << 8) | (z << 4) | x;
+	}
+
+	private static boolean isTerminal(IBlockState state) {
+		return state.getMaterial().isOpaque() && !MapDataManager.instance.isBlockTransparent(state);
+	}
+
+	public static MapChunkSnapshot capture(World world, Chunk chunk) {
+		final ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+		final int topSection = chunk.getTopFilledSegment() >> 4;
+		final IBlockState[][] sections = new IBlockState[topSection + 1][];
+
+		final boolean[] coveredColumns = new boolean[16 * 16];
+		int uncoveredColumns = coveredColumns.length;
+
+		int sectionY = topSection;
+		for (; sectionY >= 0 && uncoveredColumns > 0; sectionY--) {
+			final ExtendedBlockStorage section = storage[sectionY];
+			if (section == Chunk.NULL_BLOCK_STORAGE || section.isEmpty()) continue;
+
+			final IBlockState[] states = new IBlockState[16 * 16 * 16];
+			for (int y = 15; y >= 0; y--)
+				for (int z = 0; z < 16; z++)
+					for (int x = 0; x < 16; x++) {
+						final IBlockState state = section.get(x, y, z);
+						states[index(x, y, z)] = state;
+
+						final int column = (z << 4) | x;
+						if (!coveredColumns[column] && isTerminal(state)) {
+							coveredColumns[column] = true;
+							uncoveredColumns--;
+						}
+					}
+
+			sections[sectionY] = states;
+		}
+
+		final byte[] biomes = chunk.getBiomeArray().clone();
+		return new MapChunkSnapshot(world.getWorldType(), chunk.x << 4, chunk.z << 4, sections, topSection, sectionY + 1, biomes);
+	}
+
+	public int getBaseX() {
+		return baseX;
+	}
+
+	public int getBaseZ() {
+		return baseZ;
+	}
+
+	public int getTopSection() {
+		return topSection;
+	}
+
+	public int getBottomSection() {
+		return bottomSection;
+	}
+
+	@Nullable
+	public IBlockState[] getSection(int sectionY) {
+		return sections[sectionY];
+	}
+
+	public static IBlockState getState(IBlockState[] section, int x, int y, int z) {
+		return section[index(x, y, z)];
+	}
+
+	@Override
+	@Nullable
+	public TileEntity getTileEntity(BlockPos pos) {
+		return null;
+	}
+
+	@Override
+	public int getCombinedLight(BlockPos pos, int lightValue) {
+		return 0;
+	}
+
+	@Override
+	public IBlockState getBlockState(BlockPos pos) {
+		final int x = pos.getX() - baseX;
+		final int y = pos.getY();
+		final int z = pos.getZ() - baseZ;
+
+		if (x < 0 || x >= 16 || z < 0 || z >= 16) return AIR;
+
+		final int sectionY = y >> 4;
+		if (sectionY < bottomSection || sectionY > topSection) return AIR;
+
+		final IBlockState[] section = sections[sectionY];
+		return section != null? section[index(x, y & 15, z)] : AIR;
+	}
+
+	@Override
+	public boolean isAirBlock(BlockPos pos) {
+		final IBlockState state = getBlockState(pos);
+		return state.getBlock().isAir(state, this, pos);
+	}
+
+	@Override
+	public Biome getBiome(BlockPos pos) {
+		final int x = pos.getX() - baseX;
+		final int z = pos.getZ() - baseZ;
+		if (x < 0 || x >= 16 || z < 0 || z >= 16) return Biomes.PLAINS;
+
+		return Biome.getBiome(biomes[(z << 4) | x] & 255, Biomes.PLAINS);
+	}
+
+	@Override
+	public int getStrongPower(BlockPos pos, EnumFacing direction) {
+		return 0;
+	}
+
+	@Override
+	public WorldType getWorldType() {
+		return worldType;
+	}
+
+	@Override
+	public boolean isSideSolid(BlockPos pos, EnumFacing side, boolean _default) {
+		final IBlockState state = getBlockState(pos);
+		return state.isSideSolid(this, pos, side);
+	}
+
+}
@@ -1,28 +1,36 @@
 package openblocks.common;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
 import javax.annotation.Nonnull;
-import net.minecraft.block.Block;
 import net.minecraft.block.material.MapColor;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
-import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.IChunkProvider;
 import openblocks.common.HeightMapData.LayerData;
 import openblocks.common.item.ItemEmptyMap;
 import openblocks.common.item.ItemHeightMap;
+import openmods.Log;
 import openmods.utils.BitSet;
 
 public class MapDataBuilder {
@@ -30,96 +38,125 @@ public class MapDataBuilder {
 	private static final int LAYER_LIQUIDS = 1;
 	private static final int LAYER_COUNT = 2;
 
+	private static final ExecutorService MAP_WORKERS = Executors.newFixedThreadPool(2,
+			new ThreadFactoryBuilder().setNameFormat("OpenBlocks cartographer worker %d").setDaemon(true).build());
+
 	public final int mapId;
 	private HeightMapData data;
 
-	private static class BlockCount {
+	private static class ColumnScanner {
+		private final MapChunkSnapshot world;
+
+		private final int baseX;
+
+		private final int baseZ;
+
+		private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+		private final int[] groundColors = new int[MapColor.COLORS.length];
+
+		private final int[] liquidColors = new int[MapColor.COLORS.length];
+
+		private IBlockState columnSolid;
+		private int columnSolidY;
+
+		private IBlockState columnLiquid;
+		private int columnLiquidY;
+
 		public byte groundColor;
 		public int groundHeight;
 
 		public byte liquidColor;
 		public int liquidHeight;
 
-		private static IBlockState getValidBlock(IBlockAccess world, Chunk chunk, BlockPos pos) {
-			final IBlockState blockState = chunk.getBlockState(pos);
-			final Block block = blockState.getBlock();
+		public ColumnScanner(MapChunkSnapshot world) {
+			this.world = world;
+			this.baseX = world.getBaseX();
+			this.baseZ = world.getBaseZ();
+		}
+
+		private boolean isValidBlock(IBlockState blockState, int x, int y, int z) {
+			pos.setPos(baseX + x, y, baseZ + z);
+			if (blockState.getBlock().isAir(blockState, world, pos)) return false;
+			if (blockState.getMapColor(world, pos) == MapColor.AIR) return false;
+			return !MapDataManager.instance.isBlockTransparent(blockState);
+		}
+
+		private void scanColumn(int x, int z) {
+			columnSolid = null;
+			columnLiquid = null;
 
-			if (block.isAir(blockState, world, pos)) return null;
+			for (int sectionY = world.getTopSection(); sectionY >= world.getBottomSection(); sectionY--) {
+				final IBlockState[] section = world.getSection(sectionY);
+				if (section == null) continue;
 
-			if (blockState.getMapColor(world, pos) == MapColor.AIR) return null;
+				final int sectionBase = sectionY << 4;
+				for (int localY = 15; localY >= 0; localY--) {
+					final IBlockState blockState = MapChunkSnapshot.getState(section, x, localY, z);
+					final int y = sectionBase + localY;
+					if (!isValidBlock(blockState, x, y, z)) continue;
 
-			if (MapDataManager.instance.isBlockTransparent(block)) return null;
+					if (blockState.getMaterial().isLiquid()) {
+						if (columnLiquid == null) {
+							columnLiquid = blockState;
+							columnLiquidY = y;
+						}
+					} else {
+						columnSolid = blockState;
+						columnSolidY = y;
+						return;
+					}
+				}
+			}
+		}
 
-			return blockState;
+		private static byte mostCommon(int[] colors) {
+			byte result = 0;
+			int maxColorCount = -1;
+			for (int i = 0; i < colors.length; i++)
+				if (colors[i] > maxColorCount) {
+					result = (byte)i;
+					maxColorCount = colors[i];
+				}
+			return result;
 		}
 
-		public void average(IBlockAccess world, Chunk chunk, int startX, int startZ, int size) {
+		public void average(int startX, int startZ, int size) {
+			Arrays.fill(groundColors, 0);
+			Arrays.fill(liquidColors, 0);
+
 			double groundHeightSum = 0;
-			int[] groundColors = new int[MapColor.COLORS.length];
 
 			double liquidHeightSum = 0;
 			int liquidCount = 0;
-			int[] liquidColors = new int[MapColor.COLORS.length];
 
 			for (int x = startX; x < startX + size; x++)
 				for (int z = startZ; z < startZ + size; z++) {
-					IBlockState blockLiquid = null;
-					BlockPos heightLiquid = null;
-
-					IBlockState blockSolid = null;
-					BlockPos heightSolid = null;
-
-					for (int y = 255; y >= 0; y--) {
-						final BlockPos pos = new BlockPos(x, y, z);
-						IBlockState blockState = getValidBlock(world, chunk, pos);
-
-						if (blockState != null) {
-							if (blockState.getMaterial().isLiquid()) {
-								if (blockLiquid == null) {
-									blockLiquid = blockState;
-									heightLiquid = pos;
-								}
-							} else {
-								blockSolid = blockState;
-								heightSolid = pos;
-								break;
-							}
-						}
-					}
+					scanColumn(x, z);
 
-					if (blockSolid != null && heightSolid != null) {
-						groundHeightSum += heightSolid.getY();
-						MapColor color = blockSolid.getMapColor(world, heightSolid);
-						groundColors[color.colorIndex]++;
+					if (columnSolid != null) {
+						groundHeightSum += columnSolidY;
+						pos.setPos(baseX + x, columnSolidY, baseZ + z);
+						groundColors[columnSolid.getMapColor(world, pos).colorIndex]++;
 					}
 
-					if (blockLiquid != null && heightLiquid != null) {
-						liquidHeightSum += heightLiquid.getY();
-						MapColor color = blockLiquid.getMapColor(world, heightLiquid);
-						liquidColors[color.colorIndex]++;
+					if (columnLiquid != null) {
+						liquidHeightSum += columnLiquidY;
+						pos.setPos(baseX + x, columnLiquidY, baseZ + z);
+						liquidColors[columnLiquid.getMapColor(world, pos).colorIndex]++;
 						liquidCount++;
 					}
 				}
 
-			{
-				int maxColorCount = -1;
-				for (int i = 0; i < groundColors.length; i++)
-					if (groundColors[i] > maxColorCount) {
-						groundColor = (byte)i;
-						maxColorCount = groundColors[i];
-					}
-				groundHeight = (int)(groundHeightSum / (size * size));
-			}
+			groundColor = mostCommon(groundColors);
+			groundHeight = (int)(groundHeightSum / (size * size));
 
 			if (liquidCount > size * size / 2) {
-				int maxColorCount = -1;
-				for (int i = 0; i < liquidColors.length; i++)
-					if (liquidColors[i] > maxColorCount) {
-						liquidColor = (byte)i;
-						maxColorCount = liquidColors[i];
-					}
-
+				liquidColor = mostCommon(liquidColors);
 				liquidHeight = (int)(liquidHeightSum / liquidCount);
+			} else {
+				liquidColor = 0;
+				liquidHeight = 0;
 			}
 		}
 	}
@@ -131,6 +168,8 @@ public class MapDataBuilder {
 		public final int mapMinY;
 		public final int bitNum;
 
+		private int failures;
+
 		private ChunkJob(ChunkPos chunk, int pixelsPerChunk, int mapMinX, int mapMinY, int bitNum) {
 			this.chunk = chunk;
 			this.pixelsPerChunk = pixelsPerChunk;
@@ -139,32 +178,173 @@ public class MapDataBuilder {
 			this.bitNum = bitNum;
 		}
 
-		private void mapChunk(World world, Chunk chunk) {
+		private MappedChunk mapChunk(MapChunkSnapshot snapshot) {
+			final MappedChunk result = new MappedChunk(this);
+			final int blocksPerPixel = 16 / pixelsPerChunk;
+			final ColumnScanner count = new ColumnScanner(snapshot);
+
+			int pixel = 0;
+			for (int blockInChunkX = 0; blockInChunkX < 16; blockInChunkX += blocksPerPixel)
+				for (int blockInChunkZ = 0; blockInChunkZ < 16; blockInChunkZ += blocksPerPixel) {
+					count.average(blockInChunkX, blockInChunkZ, blocksPerPixel);
+
+					result.groundColor[pixel] = count.groundColor;
+					result.groundHeight[pixel] = (byte)(count.groundHeight);
+
+					result.liquidColor[pixel] = count.liquidColor;
+					result.liquidHeight[pixel] = (byte)(count.liquidHeight);
+
+					pixel++;
+				}
+
+			return result;
+		}
+
+		private void storeResult(World world, MappedChunk result) {
 			LayerData ground = data.layers[LAYER_TERRAIN];
 			LayerData liquid = data.layers[LAYER_LIQUIDS];
 
-			final int blocksPerPixel = 16 / pixelsPerChunk;
-
-			int blockInChunkX = 0;
-			for (int mapX = mapMinX; mapX < mapMinX + pixelsPerChunk; mapX++) {
-				int blockInChunkZ = 0;
+			int pixel = 0;
+			for (int mapX = mapMinX; mapX < mapMinX + pixelsPerChunk; mapX++)
 				for (int mapY = mapMinY; mapY < mapMinY + pixelsPerChunk; mapY++) {
-					BlockCount count = new BlockCount();
-					count.average(world, chunk, blockInChunkX, blockInChunkZ, blocksPerPixel);
-
 					int index = mapY * 64 + mapX;
 
-					ground.colorMap[index] = count.groundColor;
-					ground.heightMap[index] = (byte)(count.groundHeight);
+					ground.colorMap[index] = result.groundColor[pixel];
+					ground.heightMap[index] = result.groundHeight[pixel];
 
-					liquid.colorMap[index] = count.liquidColor;
-					liquid.heightMap[index] = (byte)(count.liquidHeight);
+					liquid.colorMap[index] = result.liquidColor[pixel];
+					liquid.heightMap[index] = result.liquidHeight[pixel];
 
-					blockInChunkZ += blocksPerPixel;
+					pixel++;
+				}
+
+			MapDataManager.instance.markDataUpdated(world, mapId, mapMinX, mapMinY, pixelsPerChunk);
+		}
+	}
+
+	private static class MappedChunk {
+		public final ChunkJob job;
+
+		public final byte[] groundColor;
+		public final byte[] groundHeight;
+
+		public final byte[] liquidColor;
+		public final byte[] liquidHeight;
+
+		public MappedChunk(ChunkJob job) {
+			this.job = job;
+			final int pixels = job.pixelsPerChunk * job.pixelsPerChunk;
+			this.groundColor = new byte[pixels];
+			this.groundHeight = new byte[pixels];
+			this.liquidColor = new byte[pixels];
+			this.liquidHeight = new byte[pixels];
+		}
+	}
+
+	/**
+	 * Remaining jobs of single mapping session, ordered by distance from cartographer.
+	 * Chunks are captured on server thread, mapped by workers and stored back in {@link #collectResults(World, IntConsumer)}.
+	 */
+	public static class JobQueue {
+		private final List<ChunkJob> pending;
+
+		private final Queue<MappedChunk> finished = Queues.newConcurrentLinkedQueue();
+
+		private final Queue<ChunkJob> failed = Queues.newConcurrentLinkedQueue();
+
+		private volatile boolean isCancelled;
+
+		private long orderOrigin = Long.MIN_VALUE;
+
+		public JobQueue(Collection<ChunkJob> jobs) {
+			this.pending = Lists.newArrayList(jobs);
+		}
+
+		private void sortJobs(int originChunkX, int originChunkZ) {
+			final double x = (originChunkX << 4) + 7.5;
+			final double z = (originChunkZ << 4) + 7.5;
+			pending.sort(Comparator.comparingDouble(job -> {
+				final double dx = job.chunk.getXStart() + 7.5 - x;
+				final double dz = job.chunk.getZStart() + 7.5 - z;
+				return dx * dx + dz * dz;
+			}));
+		}
+
+		private static final int MAX_ATTEMPTS = 3;
+
+		// closest chunks are usually loaded, no need to check whole list when cartographer is far from rest
+		private static final int MAX_CHECKED_JOBS = 64;
+
+		public void scheduleJobs(World world, int x, int z, int budget) {
+			if (isCancelled || pending.isEmpty()) return;
+
+			// order only changes when cartographer moves to another chunk
+			final int chunkX = x >> 4;
+			final int chunkZ = z >> 4;
+			final long origin = ChunkPos.asLong(chunkX, chunkZ);
+			if (origin != orderOrigin) {
+				sortJobs(chunkX, chunkZ);
+				orderOrigin = origin;
+			}
+
+			final IChunkProvider provider = world.getChunkProvider();
+			final Iterator<ChunkJob> it = pending.iterator();
+			int checked = 0;
+			while (budget > 0 && checked++ < MAX_CHECKED_JOBS && it.hasNext()) {
+				final ChunkJob job = it.next();
+				final ChunkPos chunkCoord = job.chunk;
+
+				// TODO verify, if does not load
+				final Chunk chunk = provider.getLoadedChunk(chunkCoord.x, chunkCoord.z);
+				if (chunk != null && !chunk.isEmpty()) {
+					it.remove();
+					budget--;
+					submit(job, MapChunkSnapshot.capture(world, chunk));
 				}
-				blockInChunkX += blocksPerPixel;
 			}
-			MapDataManager.instance.markDataUpdated(world, mapId);
+		}
+
+		private void submit(ChunkJob job, MapChunkSnapshot snapshot) {
+			MAP_WORKERS.execute(() -> {
+				try {
+					if (!isCancelled) finished.add(job.mapChunk(snapshot));
+				} catch (Throwable t) {
+					Log.warn(t, "Failed to map chunk %s", job.chunk);
+					failed.add(job);
+				}
+			});
+		}
+
+		public boolean collectResults(World world, IntConsumer finishedBitCallback) {
+			boolean anyFinished = false;
+			MappedChunk result;
+			while (!isCancelled && (result = finished.poll()) != null) {
+				result.job.storeResult(world, result);
+				finishedBitCallback.accept(result.job.bitNum);
+				anyFinished = true;
+			}
+
+			ChunkJob job;
+			while (!isCancelled && (job = failed.poll()) != null) {
+				if (++job.failures < MAX_ATTEMPTS) {
+					pending.add(job);
+					orderOrigin = Long.MIN_VALUE;
+				} else {
+					// give up on this chunk, but don't leave mapping unfinished forever
+					Log.warn("Skipping chunk %s after %d failed attempts", job.chunk, job.failures);
+					finishedBitCallback.accept(job.bitNum);
+					anyFinished = true;
+				}
+			}
+
+			return anyFinished;
+		}
+
+		public void cancel() {
+			isCancelled = true;
+			pending.clear();
+			finished.clear();
+			failed.clear();
 		}
 	}
 
@@ -226,50 +406,6 @@ public class MapDataBuilder {
 		return Sets.newHashSet(result.values());
 	}
 
-	private static class JobDistance implements Comparable<JobDistance> {
-		public final double distance;
-		public final ChunkJob job;
-
-		public JobDistance(double distance, ChunkJob job) {
-			this.distance = distance;
-			this.job = job;
-		}
-
-		@Override
-		public int compareTo(JobDistance o) {
-			return Double.compare(distance, o.distance);
-		}
-	}
-
-	public static ChunkJob doNextChunk(World world, double x, double z, Collection<ChunkJob> jobs) {
-		if (jobs.isEmpty()) return null;
-
-		PriorityQueue<JobDistance> distances = Queues.newPriorityQueue();
-
-		for (ChunkJob job : jobs) {
-			ChunkPos chunk = job.chunk;
-			double dx = chunk.getXStart() + 7.5 - x;
-			double dz = chunk.getZStart() + 7.5 - z;
-			distances.add(new JobDistance(dx * dx + dz * dz, job));
-		}
-
-		IChunkProvider provider = world.getChunkProvider();
-		while (!distances.isEmpty()) {
-			JobDistance dist = distances.poll();
-			ChunkJob job = dist.job;
-			ChunkPos chunkCoord = job.chunk;
-
-			// TODO verify, if does not load
-			Chunk chunk = provider.getLoadedChunk(chunkCoord.x, chunkCoord.z);
-			if (chunk != null && !chunk.isEmpty()) {
-				job.mapChunk(world, chunk);
-				return job;
-			}
-		}
-
-		return null;
-	}
-
 	public static ItemStack upgradeToMap(World world, @Nonnull ItemStack stack) {
 		Item item = stack.getItem();
 		if (item instanceof ItemHeightMap) return stack;
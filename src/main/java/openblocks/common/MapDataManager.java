@@ -1,20 +1,31 @@
 package openblocks.common;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
+import io.netty.buffer.Unpooled;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import openblocks.Config;
 import openmods.Log;
 import openmods.Mods;
@@ -48,8 +59,45 @@ public class MapDataManager {
 	@NetworkEventMeta(direction = EventDirection.C2S)
 	public static class MapDataRequestEvent extends MapIdRequest {}
 
+	// sent periodically by clients for maps they still display, to keep receiving changes
+	@NetworkEventMeta(direction = EventDirection.C2S)
+	public static class MapDataKeepAliveEvent extends MapIdRequest {}
+
 	@NetworkEventMeta(direction = EventDirection.S2C)
-	public static class MapUpdatesEvent extends MapIdRequest {}
+	public static class MapDataDeltaEvent extends NetworkEvent {
+		public int mapId;
+		public long tiles;
+		public int layerCount;
+		public byte[] tileData;
+
+		private HeightMapData source;
+
+		public MapDataDeltaEvent() {}
+
+		public MapDataDeltaEvent(int mapId, HeightMapData source, long tiles) {
+			this.mapId = mapId;
+			this.source = source;
+			this.tiles = tiles;
+			this.layerCount = source.layers.length;
+		}
+
+		@Override
+		protected void readFromStream(PacketBuffer input) {
+			mapId = input.readVarInt();
+			tiles = input.readLong();
+			layerCount = input.readVarInt();
+			tileData = new byte[HeightMapData.getTileDataSize(layerCount, tiles)];
+			input.readBytes(tileData);
+		}
+
+		@Override
+		protected void writeToStream(PacketBuffer output) {
+			output.writeVarInt(mapId);
+			output.writeLong(tiles);
+			output.writeVarInt(layerCount);
+			source.writeTilesToStream(output, tiles);
+		}
+	}
 
 	@NetworkEventMeta(direction = EventDirection.S2C)
 	public static class MapDataResponseEvent extends NetworkEvent {
@@ -85,9 +133,24 @@ public class MapDataManager {
 
 	public final static MapDataManager instance = new MapDataManager();
 
-	private Set<Block> blockBlacklist;
+	private volatile Set<Block> blockBlacklist;
 
-	private Set<Integer> mapsToUpdate = Sets.newHashSet();
+	private final Map<IBlockState, Boolean> stateTransparency = Maps.newConcurrentMap();
+
+	// map id -> dirty tiles since last update
+	private final Map<Integer, Long> mapsToUpdate = Maps.newHashMap();
+
+	private static final int KEEP_ALIVE_INTERVAL = 60 * 20;
+
+	private static final long SUBSCRIPTION_TIMEOUT = 3 * 60 * 1000;
+
+	// map id, player id -> subscription expiration time
+	private final Table<Integer, UUID, Long> mapSubscribers = HashBasedTable.create();
+
+	// client side, maps displayed since last keep-alive
+	private final Set<Integer> displayedMaps = Sets.newHashSet();
+
+	private int keepAliveCounter;
 
 	public static int createNewMap(World world, byte scale) {
 		int id = world.getUniqueDataId("height_map");
@@ -104,7 +167,9 @@ public class MapDataManager {
 		String name = HeightMapData.getMapName(mapId);
 		HeightMapData result = (HeightMapData)world.loadData(HeightMapData.class, name);
 
-		return result != null? result : HeightMapData.EMPTY;
+		if (result == null) return HeightMapData.EMPTY;
+		if (world.isRemote && result.isValid()) instance.displayedMaps.add(mapId);
+		return result;
 	}
 
 	public static void setMapData(World world, HeightMapData data) {
@@ -113,24 +178,57 @@ public class MapDataManager {
 
 	@SubscribeEvent
 	public void onMapDataRequest(MapDataRequestEvent evt) {
-		World world = evt.sender.world;
+		if (!evt.mapIds.isEmpty()) evt.reply(createFullResponse(evt.sender, evt.mapIds));
+	}
+
+	@SubscribeEvent
+	public void onMapDataKeepAlive(MapDataKeepAliveEvent evt) {
+		final UUID playerId = evt.sender.getUniqueID();
+		final List<Integer> expiredMaps = Lists.newArrayList();
+		for (Integer mapId : evt.mapIds) {
+			if (mapSubscribers.contains(mapId, playerId)) mapSubscribers.put(mapId, playerId, System.currentTimeMillis() + SUBSCRIPTION_TIMEOUT);
+			else expiredMaps.add(mapId);
+		}
+
+		// changes were missed since subscription ended, so resend everything
+		if (!expiredMaps.isEmpty()) evt.reply(createFullResponse(evt.sender, expiredMaps));
+	}
+
+	private MapDataResponseEvent createFullResponse(EntityPlayer player, List<Integer> mapIds) {
+		World world = player.world;
 
 		final MapDataResponseEvent response = new MapDataResponseEvent();
 		final TIntSet missingMaps = new TIntHashSet();
-		for (Integer mapId : evt.mapIds) {
+		for (Integer mapId : mapIds) {
 			final HeightMapData map = getMapData(world, mapId);
-			if (map != null && !map.isEmpty()) response.maps.put(mapId, map);
-			else missingMaps.add(mapId);
+			if (map != null && !map.isEmpty()) {
+				response.maps.put(mapId, map);
+				// player got full data, so from now on only changes are needed
+				mapSubscribers.put(mapId, player.getUniqueID(), System.currentTimeMillis() + SUBSCRIPTION_TIMEOUT);
+			} else missingMaps.add(mapId);
 		}
 
 		if (!missingMaps.isEmpty()) {
 			boolean lessThan16 = missingMaps.forEach(value -> value < 16);
 
 			// NEI asks for items with damage 0..15 and I can't block it via API
-			if (Config.alwaysReportInvalidMapRequests || !lessThan16 || !Loader.isModLoaded(Mods.NOTENOUGHITEMS)) Log.info("Player %s asked for non-existent maps %s", evt.sender, missingMaps.toString());
+			if (Config.alwaysReportInvalidMapRequests || !lessThan16 || !Loader.isModLoaded(Mods.NOTENOUGHITEMS)) Log.info("Player %s asked for non-existent maps %s", player, missingMaps.toString());
 		}
 
-		if (!evt.mapIds.isEmpty()) evt.reply(response);
+		return response;
+	}
+
+	@SubscribeEvent
+	public void onClientTick(TickEvent.ClientTickEvent evt) {
+		if (evt.phase != Phase.END || ++keepAliveCounter < KEEP_ALIVE_INTERVAL) return;
+		keepAliveCounter = 0;
+
+		if (!displayedMaps.isEmpty()) {
+			final MapDataKeepAliveEvent keepAlive = new MapDataKeepAliveEvent();
+			keepAlive.mapIds.addAll(displayedMaps);
+			keepAlive.sendToServer();
+			displayedMaps.clear();
+		}
 	}
 
 	@SubscribeEvent
@@ -144,36 +242,77 @@ public class MapDataManager {
 	}
 
 	@SubscribeEvent
-	public void onMapUpdates(MapUpdatesEvent evt) {
+	public void onMapDataDelta(MapDataDeltaEvent evt) {
 		World world = evt.sender.world;
 
-		Set<Integer> mapsToUpdate = Sets.newHashSet();
-		for (Integer mapId : evt.mapIds) {
-			HeightMapData map = getMapData(world, mapId);
-			if (map != null) mapsToUpdate.add(mapId);
-		}
+		final HeightMapData map = getMapData(world, evt.mapId);
+		if (!map.isValid()) return; // either not needed or full data already requested
 
-		if (!mapsToUpdate.isEmpty()) {
-			MapDataRequestEvent request = new MapDataRequestEvent();
-			request.mapIds = Lists.newArrayList(mapsToUpdate);
-			evt.reply(request);
+		if (map.layers.length != evt.layerCount) {
+			requestMapData(world, evt.mapId);
+			return;
 		}
+
+		map.readTilesFromStream(new PacketBuffer(Unpooled.wrappedBuffer(evt.tileData)), evt.tiles);
+	}
+
+	@SubscribeEvent
+	public void onPlayerLogout(PlayerLoggedOutEvent evt) {
+		mapSubscribers.column(evt.player.getUniqueID()).clear();
 	}
 
 	public void sendUpdates(MinecraftServer server) {
 		if (mapsToUpdate.isEmpty()) return;
 
-		MapUpdatesEvent evt = new MapUpdatesEvent();
-		evt.mapIds.addAll(mapsToUpdate);
-		mapsToUpdate.clear();
+		final World world = server.getWorld(0);
+		final long now = System.currentTimeMillis();
+		for (Map.Entry<Integer, Long> e : mapsToUpdate.entrySet()) {
+			final int mapId = e.getKey();
+			final Map<UUID, Long> subscribers = mapSubscribers.row(mapId);
+			if (subscribers.isEmpty()) continue;
+
+			// player entities are replaced on respawn and dimension change, so they are always looked up
+			final List<EntityPlayerMP> players = Lists.newArrayList();
+			final Iterator<Map.Entry<UUID, Long>> it = subscribers.entrySet().iterator();
+			while (it.hasNext()) {
+				final Map.Entry<UUID, Long> subscriber = it.next();
+				final EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(subscriber.getKey());
+				if (player == null || subscriber.getValue() < now) it.remove();
+				else players.add(player);
+			}
+
+			if (players.isEmpty()) continue;
 
-		evt.sendToAll();
+			final HeightMapData map = getMapData(world, mapId);
+			if (!map.isValid()) continue;
+
+			final long tiles = e.getValue();
+			final NetworkEvent update;
+			if (tiles == HeightMapData.ALL_TILES) {
+				final MapDataResponseEvent response = new MapDataResponseEvent();
+				response.maps.put(mapId, map);
+				update = response;
+			} else {
+				update = new MapDataDeltaEvent(mapId, map, tiles);
+			}
+
+			for (EntityPlayerMP player : players)
+				update.sendToPlayer(player);
+		}
+
+		mapsToUpdate.clear();
 	}
 
 	public void markDataUpdated(World world, int mapId) {
 		HeightMapData data = getMapData(world, mapId);
 		data.markDirty();
-		mapsToUpdate.add(mapId);
+		mapsToUpdate.put(mapId, HeightMapData.ALL_TILES);
+	}
+
+	public void markDataUpdated(World world, int mapId, int minX, int minY, int size) {
+		HeightMapData data = getMapData(world, mapId);
+		data.markDirty();
+		mapsToUpdate.merge(mapId, HeightMapData.getTiles(minX, minY, size), (a, b) -> a | b);
 	}
 
 	public static void requestMapData(World world, int mapId) {
@@ -188,7 +327,9 @@ public class MapDataManager {
 	}
 
 	private Set<Block> getBlacklist() {
+		Set<Block> blockBlacklist = this.blockBlacklist;
 		if (blockBlacklist == null) {
+			// may be called by cartographer workers, so publish only when complete
 			blockBlacklist = Sets.newIdentityHashSet();
 			for (String entry : Config.mapBlacklist) {
 				try {
@@ -201,6 +342,7 @@ public class MapDataManager {
 					Log.warn(t, "Invalid entry in map blacklist: %s", entry);
 				}
 			}
+			this.blockBlacklist = blockBlacklist;
 		}
 
 		return blockBlacklist;
@@ -208,10 +350,22 @@ public class MapDataManager {
 
 	@SubscribeEvent
 	public void onReconfig(ConfigurationChange.Post evt) {
-		if (evt.check("cartographer", "blockBlacklist")) blockBlacklist = null;
+		if (evt.check("cartographer", "blockBlacklist")) {
+			blockBlacklist = null;
+			stateTransparency.clear();
+		}
 	}
 
 	public boolean isBlockTransparent(Block block) {
 		return getBlacklist().contains(block);
 	}
+
+	public boolean isBlockTransparent(IBlockState state) {
+		Boolean result = stateTransparency.get(state);
+		if (result == null) {
+			result = isBlockTransparent(state.getBlock());
+			stateTransparency.put(state, result);
+		}
+		return result;
+	}
 }
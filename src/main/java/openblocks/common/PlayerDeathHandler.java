@@ -3,13 +3,13 @@ package openblocks.common;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.mojang.authlib.GameProfile;
 import java.io.File;
 import java.lang.ref.WeakReference;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.item.EntityItem;
@@ -22,12 +22,15 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.player.PlayerDropsEvent;
@@ -48,75 +51,95 @@ import openblocks.common.PlayerInventoryStore.ExtrasFiller;
 import openblocks.common.tileentity.TileEntityGrave;
 import openmods.Log;
 import openmods.inventory.GenericInventory;
+import openmods.shapes.IShapeable;
 import openmods.utils.NbtUtils;
 import openmods.world.DelayedActionTickHandler;
 import org.apache.logging.log4j.Level;
 
 public class PlayerDeathHandler {
 
-	private static final Comparator<BlockPos> SEARCH_COMPARATOR = new Comparator<BlockPos>() {
+	private static int coordMax(int x, int y, int z) {
+		return Math.max(Math.max(Math.abs(x), Math.abs(y)), Math.abs(z));
+	}
 
-		private int coordSum(BlockPos c) {
-			return Math.abs(c.getX()) + Math.abs(c.getY()) + Math.abs(c.getZ());
-		}
+	// Iterates cube of offsets shell by shell: first order by Manhattan distance, then by distance from axis
+	private static class SearchOrder {
+		private final int size;
 
-		private int coordMax(BlockPos c) {
-			return Math.max(Math.max(Math.abs(c.getX()), Math.abs(c.getY())), Math.abs(c.getZ()));
-		}
+		private int distance = -1;
 
-		@Override
-		public int compare(BlockPos a, BlockPos b) {
-			// first order by Manhattan distance
-			int diff = coordSum(a) - coordSum(b);
-			if (diff != 0) return diff;
+		private int[] shell = new int[3 * 64];
 
-			// then by distance from axis
-			return coordMax(b) - coordMax(a);
-		}
-	};
+		private int shellSize;
 
-	private static class SearchOrder implements Iterable<BlockPos> {
-		public final int size;
+		private int index;
 
-		private final List<BlockPos> coords;
+		public int x;
 
-		public SearchOrder(int size) {
-			this.size = size;
+		public int y;
 
-			List<BlockPos> coords = Lists.newArrayList();
+		public int z;
 
-			for (int x = -size; x <= size; x++)
-				for (int y = -size; y <= size; y++)
-					for (int z = -size; z <= size; z++)
-						coords.add(new BlockPos(x, y, z));
+		public SearchOrder(int size) {
+			this.size = size;
+		}
 
-			Collections.sort(coords, SEARCH_COMPARATOR);
+		public boolean next() {
+			while (index >= shellSize) {
+				if (++distance > 3 * size) return false;
+				fillShell(distance);
+				index = 0;
+			}
 
-			this.coords = ImmutableList.copyOf(coords);
+			final int offset = 3 * index++;
+			x = shell[offset];
+			y = shell[offset + 1];
+			z = shell[offset + 2];
+			return true;
 		}
 
-		@Override
-		public Iterator<BlockPos> iterator() {
-			return coords.iterator();
+		private void visitShell(int distance, IShapeable visitor) {
+			final int limitX = Math.min(distance, size);
+			for (int x = -limitX; x <= limitX; x++) {
+				final int remainingX = distance - Math.abs(x);
+				final int limitY = Math.min(remainingX, size);
+				for (int y = -limitY; y <= limitY; y++) {
+					final int remainingY = remainingX - Math.abs(y);
+					if (remainingY > size) continue;
+
+					if (remainingY == 0) {
+						visitor.setBlock(x, y, 0);
+					} else {
+						visitor.setBlock(x, y, -remainingY);
+						visitor.setBlock(x, y, +remainingY);
+					}
+				}
+			}
 		}
-	}
 
-	private static SearchOrder searchOrder;
+		private void fillShell(int distance) {
+			// counting sort, with far from axis first
+			final int maxCoord = Math.min(distance, size);
+			final int[] offsets = new int[maxCoord + 2];
+			visitShell(distance, (x, y, z) -> offsets[maxCoord - coordMax(x, y, z) + 1]++);
 
-	private static Iterable<BlockPos> getSearchOrder(int size) {
-		if (searchOrder == null || searchOrder.size != size) searchOrder = new SearchOrder(size);
-		return searchOrder;
-	}
+			for (int i = 1; i < offsets.length; i++)
+				offsets[i] += offsets[i - 1];
 
-	private abstract static class GravePlacementChecker {
-		public boolean canPlace(World world, EntityPlayer player, BlockPos pos) {
-			if (!world.isBlockLoaded(pos)) return false;
-			if (!world.isBlockModifiable(player, pos)) return false;
+			shellSize = offsets[maxCoord + 1];
+			if (shell.length < 3 * shellSize) shell = new int[3 * shellSize];
 
-			IBlockState block = world.getBlockState(pos);
-			return checkBlock(world, pos, block);
+			final int[] shell = this.shell;
+			visitShell(distance, (x, y, z) -> {
+				final int offset = 3 * offsets[maxCoord - coordMax(x, y, z)]++;
+				shell[offset] = x;
+				shell[offset + 1] = y;
+				shell[offset + 2] = z;
+			});
 		}
+	}
 
+	private abstract static class GravePlacementChecker {
 		public abstract boolean checkBlock(World world, BlockPos pos, IBlockState state);
 	}
 
@@ -247,31 +270,51 @@ public class PlayerDeathHandler {
 					&& world.isBlockModifiable(player, pos);
 		}
 
-		private BlockPos findLocation(World world, EntityPlayer player, GravePlacementChecker checker) {
+		private static Chunk getLoadedChunk(World world, Map<Long, Chunk> chunks, int x, int z) {
+			final long key = ChunkPos.asLong(x >> 4, z >> 4);
+			Chunk chunk = chunks.get(key);
+			if (chunk == null && !chunks.containsKey(key)) {
+				// null for unloaded chunks, so they are only checked once
+				chunk = world.getChunkProvider().getLoadedChunk(x >> 4, z >> 4);
+				chunks.put(key, chunk);
+			}
+			return chunk;
+		}
+
+		private BlockPos findLocation(World world, EntityPlayer player) {
 			final int limitedPosY = Math.min(Math.max(playerPos.getY(), Config.minGraveY), Config.maxGraveY);
-			BlockPos searchPos = new BlockPos(playerPos.getX(), limitedPosY, playerPos.getZ());
 			final int searchSize = Config.graveSpawnRange / 2;
+			final boolean canBeBrutal = Config.destructiveGraves;
 
-			for (BlockPos c : getSearchOrder(searchSize)) {
-				final BlockPos tryPos = searchPos.add(c);
-				final int y = tryPos.getY();
-				if (y > Config.maxGraveY || y < Config.minGraveY) continue;
-				if (checker.canPlace(world, player, tryPos)) return tryPos;
-			}
+			final Map<Long, Chunk> chunks = Maps.newHashMap();
+			final BlockPos.MutableBlockPos tryPos = new BlockPos.MutableBlockPos();
+			BlockPos brutalLocation = null;
 
-			return null;
-		}
+			// single pass for both checkers: first polite location wins, otherwise first brutal one
+			final SearchOrder order = new SearchOrder(searchSize);
+			while (order.next()) {
+				final int y = limitedPosY + order.y;
+				if (y > Config.maxGraveY || y < Config.minGraveY || y < 0 || y >= 256) continue;
 
-		private BlockPos findLocation(World world, EntityPlayer player) {
-			BlockPos location = findLocation(world, player, POLITE);
-			if (location != null) return location;
+				final int x = playerPos.getX() + order.x;
+				final int z = playerPos.getZ() + order.z;
+				final Chunk chunk = getLoadedChunk(world, chunks, x, z);
+				if (chunk == null) continue;
+
+				tryPos.setPos(x, y, z);
+				if (!world.isBlockModifiable(player, tryPos)) continue;
+
+				final ExtendedBlockStorage section = chunk.getBlockStorageArray()[y >> 4];
+				final IBlockState state = (section == Chunk.NULL_BLOCK_STORAGE || section.isEmpty())
+						? Blocks.AIR.getDefaultState()
+						: section.get(x & 15, y & 15, z & 15);
 
-			if (Config.destructiveGraves) {
-				Log.warn("Failed to place grave for player %s, going berserk", stiffId);
-				return findLocation(world, player, BRUTAL);
+				if (POLITE.checkBlock(world, tryPos, state)) return tryPos.toImmutable();
+				if (canBeBrutal && brutalLocation == null && BRUTAL.checkBlock(world, tryPos, state)) brutalLocation = tryPos.toImmutable();
 			}
 
-			return null;
+			if (brutalLocation != null) Log.warn("Failed to place grave for player %s, going berserk", stiffId);
+			return brutalLocation;
 		}
 
 		private void backupGrave(World world, IInventory loot, ExtrasFiller filler) {
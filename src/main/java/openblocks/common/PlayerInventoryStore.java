@@ -2,6 +2,7 @@ package openblocks.common;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.authlib.GameProfile;
 import java.io.File;
 import java.io.FileInputStream;
@@ -15,6 +16,10 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.entity.Entity;
@@ -31,6 +36,7 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import openblocks.Config;
@@ -61,6 +67,90 @@ public class PlayerInventoryStore {
 
 	private static final String PREFIX = "inventory-";
 
+	private static final String INDEX_FILE = "openblocks-inventory-index";
+
+	private static final String TAG_DUMPS = "Dumps";
+
+	private static final Pattern DUMP_NAME = Pattern.compile("(.+)-\\d{4}-\\d{2}-\\d{2}_\\d{2}\\.\\d{2}\\.\\d{2}-(.+)-\\d+");
+
+	private static final int MAX_PENDING_WRITES = 64;
+
+	// limits number of dumps waiting for writer, when exceeded dumps are written on caller thread
+	private final Semaphore pendingWrites = new Semaphore(MAX_PENDING_WRITES);
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNameFormat("OpenBlocks inventory writer").setDaemon(true).build());
+
+	private static class DumpEntry {
+		public final String player;
+
+		public final String type;
+
+		public final long created;
+
+		public DumpEntry(String player, String type, long created) {
+			this.player = player;
+			this.type = type;
+			this.created = created;
+		}
+	}
+
+	private static class DumpIndex {
+		private final File indexFile;
+
+		// keys are file names without prefix and extension
+		private final Map<String, DumpEntry> entries = Maps.newLinkedHashMap();
+
+		private boolean isDirty;
+
+		public DumpIndex(File indexFile) {
+			this.indexFile = indexFile;
+		}
+
+		public NBTTagCompound writeToNBT() {
+			final NBTTagList dumps = new NBTTagList();
+			for (Map.Entry<String, DumpEntry> e : entries.entrySet()) {
+				final NBTTagCompound dumpTag = new NBTTagCompound();
+				final DumpEntry entry = e.getValue();
+				dumpTag.setString("Name", e.getKey());
+				dumpTag.setString("Player", entry.player);
+				dumpTag.setString("Type", entry.type);
+				dumpTag.setLong("Created", entry.created);
+				dumps.appendTag(dumpTag);
+			}
+
+			final NBTTagCompound result = new NBTTagCompound();
+			result.setTag(TAG_DUMPS, dumps);
+			return result;
+		}
+
+		public void readFromNBT(NBTTagCompound tag) {
+			final NBTTagList dumps = tag.getTagList(TAG_DUMPS, Constants.NBT.TAG_COMPOUND);
+			for (int i = 0; i < dumps.tagCount(); i++) {
+				final NBTTagCompound dumpTag = dumps.getCompoundTagAt(i);
+				entries.put(dumpTag.getString("Name"), new DumpEntry(dumpTag.getString("Player"), dumpTag.getString("Type"), dumpTag.getLong("Created")));
+			}
+		}
+
+		public void scanFolder(File saveFolder) {
+			final File[] files = saveFolder.listFiles((FilenameFilter)(dir, name) -> name.startsWith(PREFIX));
+			if (files == null) return;
+
+			for (File f : files) {
+				final String name = stripFilename(f.getName());
+				final Matcher matcher = DUMP_NAME.matcher(name);
+				final DumpEntry entry = matcher.matches()
+						? new DumpEntry(matcher.group(1), matcher.group(2), f.lastModified())
+						: new DumpEntry("", "", f.lastModified());
+				entries.put(name, entry);
+			}
+
+			isDirty = true;
+		}
+	}
+
+	private final Map<File, DumpIndex> indices = Maps.newHashMap();
+
 	private PlayerInventoryStore() {}
 
 	public static final PlayerInventoryStore instance = new PlayerInventoryStore();
@@ -81,18 +171,118 @@ public class PlayerInventoryStore {
 		}
 	}
 
+	private synchronized DumpIndex getIndex(World world) {
+		final File saveFolder = getSaveFolder(world);
+		DumpIndex index = indices.get(saveFolder);
+		if (index == null) {
+			final File indexFile = new File(saveFolder, INDEX_FILE + ".dat");
+			index = new DumpIndex(indexFile);
+
+			final NBTTagCompound indexTag = indexFile.exists()? readCompressed(indexFile) : null;
+			if (indexTag != null) index.readFromNBT(indexTag);
+			else index.scanFolder(saveFolder);
+
+			indices.put(saveFolder, index);
+		}
+
+		return index;
+	}
+
 	private synchronized File getNewDumpFile(Date date, String player, World world, String type) {
+		final DumpIndex index = getIndex(world);
 		String dateStr = formatter.format(date);
 
 		int id = 0;
 		while (true) {
-			String filename = String.format(PREFIX + "%s-%s-%s-%d", player, dateStr, type, id);
-			File file = world.getSaveHandler().getMapFileFromName(filename);
-			if (!file.exists()) return file;
+			String name = String.format("%s-%s-%s-%d", player, dateStr, type, id);
+			if (!index.entries.containsKey(name)) {
+				final File file = world.getSaveHandler().getMapFileFromName(PREFIX + name);
+				// index is saved with world, so after crash it may miss some dumps
+				if (!file.exists()) {
+					index.entries.put(name, new DumpEntry(player, type, date.getTime()));
+					index.isDirty = true;
+					return file;
+				}
+
+				index.entries.put(name, new DumpEntry(player, type, file.lastModified()));
+				index.isDirty = true;
+			}
 			id++;
 		}
 	}
 
+	private static NBTTagCompound readCompressed(File file) {
+		try {
+			InputStream stream = new FileInputStream(file);
+			try {
+				return CompressedStreamTools.readCompressed(stream);
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			Log.warn(e, "Failed to read data from file %s", file.getAbsoluteFile());
+			return null;
+		}
+	}
+
+	private static void writeCompressed(File file, NBTTagCompound tag) throws IOException {
+		OutputStream stream = new FileOutputStream(file);
+		try {
+			CompressedStreamTools.writeCompressed(tag, stream);
+		} finally {
+			stream.close();
+		}
+	}
+
+	private void scheduleWrite(File file, NBTTagCompound tag, String owner) {
+		final Runnable task = () -> {
+			try {
+				writeCompressed(file, tag);
+			} catch (IOException e) {
+				Log.warn(e, "Failed to dump data for %s, file %s", owner, file.getAbsoluteFile());
+			}
+		};
+
+		if (pendingWrites.tryAcquire()) {
+			writer.execute(() -> {
+				try {
+					task.run();
+				} finally {
+					pendingWrites.release();
+				}
+			});
+		} else {
+			task.run();
+		}
+	}
+
+	private void waitForPendingWrites() {
+		try {
+			// writer is single threaded, so this will finish after every already queued task
+			writer.submit(() -> {}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			Log.warn(e, "Failed to wait for pending inventory dumps");
+		}
+	}
+
+	public void flush() {
+		synchronized (this) {
+			for (DumpIndex index : indices.values()) {
+				if (index.isDirty) {
+					index.isDirty = false;
+					scheduleWrite(index.indexFile, index.writeToNBT(), "inventory index");
+				}
+			}
+		}
+
+		waitForPendingWrites();
+	}
+
+	@SubscribeEvent
+	public void onWorldSave(WorldEvent.Save evt) {
+		if (!evt.getWorld().isRemote) flush();
+	}
+
 	private static String stripFilename(String name) {
 		return StringUtils.removeEndIgnoreCase(StringUtils.removeStartIgnoreCase(name, PREFIX), ".dat");
 	}
@@ -158,16 +348,8 @@ public class PlayerInventoryStore {
 		root.setString("Type", type);
 		filler.addExtras(root);
 
-		try {
-			OutputStream stream = new FileOutputStream(dumpFile);
-			try {
-				CompressedStreamTools.writeCompressed(root, stream);
-			} finally {
-				stream.close();
-			}
-		} catch (IOException e) {
-			Log.warn(e, "Failed to dump data for player %s, file %s", name, dumpFile.getAbsoluteFile());
-		}
+		// items in sub inventories share tags with live stacks, so writer gets deep copy
+		scheduleWrite(dumpFile, root.copy(), "player " + name);
 
 		return dumpFile;
 	}
@@ -212,34 +394,19 @@ public class PlayerInventoryStore {
 		return result;
 	}
 
-	private static NBTTagCompound loadInventoryTag(World world, String fileId) {
+	private NBTTagCompound loadInventoryTag(World world, String fileId) {
+		// requested dump may be still waiting for write
+		waitForPendingWrites();
 		File file = world.getSaveHandler().getMapFileFromName(PREFIX + stripFilename(fileId));
-
-		try {
-			InputStream stream = new FileInputStream(file);
-			try {
-				return CompressedStreamTools.readCompressed(stream);
-			} finally {
-				stream.close();
-			}
-		} catch (IOException e) {
-			Log.warn(e, "Failed to read data from file %s", file.getAbsoluteFile());
-			return null;
-		}
+		return readCompressed(file);
 	}
 
-	public List<String> getMatchedDumps(World world, String prefix) {
-		File saveFolder = getSaveFolder(world);
-		final String actualPrefix = StringUtils.startsWithIgnoreCase(prefix, PREFIX)? prefix : PREFIX + prefix;
-		File[] files = saveFolder.listFiles((FilenameFilter)(dir, name) -> name.startsWith(actualPrefix));
+	public synchronized List<String> getMatchedDumps(World world, String prefix) {
+		final String actualPrefix = StringUtils.startsWithIgnoreCase(prefix, PREFIX)? prefix.substring(PREFIX.length()) : prefix;
 
 		List<String> result = Lists.newArrayList();
-		int toCut = PREFIX.length();
-
-		for (File f : files) {
-			String name = f.getName();
-			result.add(name.substring(toCut, name.length() - 4));
-		}
+		for (String name : getIndex(world).entries.keySet())
+			if (name.startsWith(actualPrefix)) result.add(name);
 
 		return result;
 	}
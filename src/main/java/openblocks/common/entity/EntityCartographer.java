@@ -4,7 +4,6 @@ import com.google.common.collect.ImmutableSet;
 import io.netty.buffer.ByteBuf;
 import java.io.IOException;
 import java.util.Random;
-import java.util.Set;
 import javax.annotation.Nonnull;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -20,10 +19,11 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import openblocks.Config;
 import openblocks.OpenBlocks.Items;
 import openblocks.client.renderer.entity.EntitySelectionHandler.ISelectAware;
 import openblocks.common.MapDataBuilder;
-import openblocks.common.MapDataBuilder.ChunkJob;
+import openblocks.common.MapDataBuilder.JobQueue;
 import openblocks.common.item.ItemCartographer;
 import openblocks.common.item.ItemEmptyMap;
 import openblocks.common.item.ItemHeightMap;
@@ -45,7 +45,6 @@ import openmods.utils.ItemUtils;
 public class EntityCartographer extends EntityAssistant implements ISelectAware, ISyncMapProvider {
 
 	public static final String TAG_MAP_ITEM = "MapItem";
-	private static final int MAP_JOB_DELAY = 5;
 	private static final int MOVE_DELAY = 35;
 
 	public static final Random RANDOM = new Random();
@@ -55,7 +54,7 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 
 	public static class MapJobs extends SyncableObjectBase {
 		private BitSet bits = new BitSet();
-		private Set<ChunkJob> jobs;
+		private JobQueue jobs;
 		private int size;
 
 		public boolean test(int bit) {
@@ -90,14 +89,14 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 		public void runJob(World world, int x, int z) {
 			if (jobs == null) {
 				Log.severe("STOP ABUSING CARTOGRAPHER RIGHT NOW! YOU BROKE IT!");
-				jobs = ImmutableSet.of();
-			}
-			ChunkJob job = MapDataBuilder.doNextChunk(world, x, z, jobs);
-			if (job != null) {
-				jobs.remove(job);
-				bits.setBit(job.bitNum);
-				markDirty();
+				jobs = new JobQueue(ImmutableSet.of());
 			}
+
+			if (jobs.collectResults(world, bits::setBit)) markDirty();
+		}
+
+		public void scheduleJobs(World world, int x, int z) {
+			if (jobs != null) jobs.scheduleJobs(world, x, z, Config.cartographerChunksPerJob);
 		}
 
 		public void resumeMapping(World world, int mapId) {
@@ -107,7 +106,7 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 			builder.resizeIfNeeded(bits); // better to lost progress than to break world
 
 			size = builder.size();
-			jobs = builder.createJobs(bits);
+			setJobs(new JobQueue(builder.createJobs(bits)));
 			markDirty();
 		}
 
@@ -118,12 +117,17 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 			builder.resize(bits);
 
 			size = builder.size();
-			jobs = builder.createJobs(bits);
+			setJobs(new JobQueue(builder.createJobs(bits)));
 			markDirty();
 		}
 
+		private void setJobs(JobQueue newJobs) {
+			if (jobs != null) jobs.cancel();
+			jobs = newJobs;
+		}
+
 		public void stopMapping() {
-			jobs.clear();
+			jobs.cancel();
 			bits.resize(0);
 			size = 0;
 			markDirty();
@@ -142,8 +146,8 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 	private ItemStack mapItem = ItemStack.EMPTY;
 	private int mappingDimension;
 
-	private int countdownToAction = MAP_JOB_DELAY;
 	private int countdownToMove = MOVE_DELAY;
+	private int countdownToAction = Config.cartographerJobDelay;
 	private float randomDelta;
 
 	private final SyncMap syncMap;
@@ -202,9 +206,13 @@ public class EntityCartographer extends EntityAssistant implements ISelectAware,
 		super.onUpdate();
 
 		if (!world.isRemote) {
-			if (world.provider.getDimension() == mappingDimension && isMapping.get() && countdownToAction-- <= 0) {
+			if (world.provider.getDimension() == mappingDimension && isMapping.get()) {
 				jobs.runJob(world, (int)posX, (int)posZ);
-				countdownToAction = MAP_JOB_DELAY;
+
+				if (countdownToAction-- <= 0) {
+					jobs.scheduleJobs(world, (int)posX, (int)posZ);
+					countdownToAction = Config.cartographerJobDelay;
+				}
 			}
 
 			syncMap.sendUpdates();
@@ -21,18 +21,34 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 	private static final String TAG_ROTATION = "Rotation";
 	private static final String TAG_COVER = "Cover";
 
+	private static final String TAG_DATA = "Data";
+
+	private static final int ROTATION_BITS = 2;
+	private static final int ROTATION_MASK = (1 << ROTATION_BITS) - 1;
+
+	private static final StencilPattern[] STENCILS = StencilPattern.values();
+	private static final TextureOrientation[] ROTATIONS = TextureOrientation.values();
+
 	private static class Pattern {
 		public StencilPattern stencil;
 		public TextureOrientation rotation;
 
+		// stencil ordinal (same as stencil item damage) and rotation in single int
+		public int pack() {
+			return (stencil.ordinal() << ROTATION_BITS) | rotation.ordinal();
+		}
+
+		public void unpack(int packed) {
+			rotation = ROTATIONS[packed & ROTATION_MASK];
+			stencil = STENCILS[packed >>> ROTATION_BITS];
+		}
+
 		public void readFromStream(PacketBuffer stream) {
-			rotation = TextureOrientation.values()[stream.readByte()];
-			stencil = (StencilPattern.values()[stream.readByte()]);
+			unpack(stream.readVarInt());
 		}
 
 		public void writeToStream(PacketBuffer stream) {
-			stream.writeByte(rotation.ordinal());
-			stream.writeByte(stencil.ordinal());
+			stream.writeVarInt(pack());
 		}
 
 		public void readFromNBT(NBTTagCompound tag) {
@@ -40,11 +56,6 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 			stencil = StencilPattern.valueOf(tag.getString(TAG_STENCIL));
 		}
 
-		public void writeToNBT(NBTTagCompound tag) {
-			tag.setByte(TAG_ROTATION, (byte)rotation.ordinal());
-			tag.setString(TAG_STENCIL, stencil.name());
-		}
-
 		public boolean hasSamePatternAndRotation(Pattern other) {
 			return this.rotation == other.rotation &&
 					this.stencil == other.stencil;
@@ -58,8 +69,10 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 		public static Layer createFromStream(PacketBuffer stream) {
 			final Layer layer = new Layer();
 			try {
-				layer.color = stream.readInt();
-				layer.readFromStream(stream);
+				final int packed = stream.readVarInt();
+				layer.unpack(packed >>> 1);
+				// most colors have no alpha, so top byte is skipped
+				layer.color = (packed & 1) != 0? stream.readInt() : stream.readUnsignedMedium();
 			} catch (Exception e) {
 				Log.warn(e, "Failed to read stencil layer");
 			}
@@ -69,15 +82,10 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 
 		@Override
 		public void writeToStream(PacketBuffer stream) {
-			stream.writeInt(color);
-			super.writeToStream(stream);
-		}
-
-		public NBTTagCompound writeToNBT() {
-			final NBTTagCompound nbt = new NBTTagCompound();
-			nbt.setInteger(TAG_COLOR, color);
-			writeToNBT(nbt);
-			return nbt;
+			final boolean hasAlpha = (color & 0xFF000000) != 0;
+			stream.writeVarInt((pack() << 1) | (hasAlpha? 1 : 0));
+			if (hasAlpha) stream.writeInt(color);
+			else stream.writeMedium(color);
 		}
 
 		public static Layer createFromNBT(NBTTagCompound tag) {
@@ -99,11 +107,20 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 		}
 
 		public static Optional<Cover> createFromStream(PacketBuffer stream) {
-			if (!stream.readBoolean()) return Optional.absent();
+			return unpackOptional(stream.readVarInt());
+		}
+
+		// 0 is reserved for missing cover
+		public static int packOptional(Optional<Cover> cover) {
+			return cover.isPresent()? cover.get().pack() + 1 : 0;
+		}
+
+		public static Optional<Cover> unpackOptional(int packed) {
+			if (packed == 0) return Optional.absent();
 
 			final Cover cover = new Cover();
 			try {
-				cover.readFromStream(stream);
+				cover.unpack(packed - 1);
 			} catch (Exception e) {
 				Log.warn(e, "Failed to read stencil cover");
 			}
@@ -111,12 +128,6 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 			return Optional.of(cover);
 		}
 
-		public NBTTagCompound writeToNBT() {
-			final NBTTagCompound nbt = new NBTTagCompound();
-			writeToNBT(nbt);
-			return nbt;
-		}
-
 		public static Cover createFromNBT(NBTTagCompound tag) {
 			final Cover cover = new Cover();
 			cover.readFromNBT(tag);
@@ -133,9 +144,9 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 	@Override
 	public void readFromStream(PacketBuffer stream) {
 		backgroundColor = stream.readInt();
-		int size = stream.readByte();
+		int size = stream.readVarInt();
 		layers.clear();
-		for (byte i = 0; i < size; i++)
+		for (int i = 0; i < size; i++)
 			layers.push(Layer.createFromStream(stream));
 
 		cover = Cover.createFromStream(stream);
@@ -144,43 +155,62 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 	@Override
 	public void writeToStream(PacketBuffer stream) {
 		stream.writeInt(backgroundColor);
-		stream.writeByte(layers.size());
+		stream.writeVarInt(layers.size());
 		for (Layer layer : layers)
 			layer.writeToStream(stream);
 
-		if (cover.isPresent()) {
-			stream.writeBoolean(true);
-			cover.get().writeToStream(stream);
-		} else {
-			stream.writeBoolean(false);
-		}
+		stream.writeVarInt(Cover.packOptional(cover));
 	}
 
 	@Override
 	public void writeToNBT(NBTTagCompound nbt, String name) {
-		final NBTTagCompound subTag = new NBTTagCompound();
-		subTag.setInteger(TAG_BACKGROUND, backgroundColor);
-
-		final NBTTagList layersTag = new NBTTagList();
-
-		for (Layer layer : layers)
-			layersTag.appendTag(layer.writeToNBT());
-
-		subTag.setTag(TAG_LAYERS, layersTag);
-
-		if (cover.isPresent())
-			subTag.setTag(TAG_COVER, cover.get().writeToNBT());
+		// [background, layer count, (pattern, color) for every layer, cover]
+		final int[] data = new int[2 + 2 * layers.size() + 1];
+		int pos = 0;
+		data[pos++] = backgroundColor;
+		data[pos++] = layers.size();
+		for (Layer layer : layers) {
+			data[pos++] = layer.pack();
+			data[pos++] = layer.color;
+		}
+		data[pos++] = Cover.packOptional(cover);
 
+		final NBTTagCompound subTag = new NBTTagCompound();
+		subTag.setIntArray(TAG_DATA, data);
 		nbt.setTag(name, subTag);
 	}
 
 	@Override
 	public void readFromNBT(NBTTagCompound nbt, String name) {
 		final NBTTagCompound subTag = nbt.getCompoundTag(name);
+		layers.clear();
+
+		if (subTag.hasKey(TAG_DATA, Constants.NBT.TAG_INT_ARRAY)) readPackedData(subTag.getIntArray(TAG_DATA));
+		else readLegacyData(subTag);
+	}
+
+	private void readPackedData(int[] data) {
+		try {
+			int pos = 0;
+			backgroundColor = data[pos++];
+			final int size = data[pos++];
+			for (int i = 0; i < size; i++) {
+				final Layer layer = new Layer();
+				layer.unpack(data[pos++]);
+				layer.color = data[pos++];
+				layers.push(layer);
+			}
+			cover = Cover.unpackOptional(data[pos++]);
+		} catch (Exception e) {
+			Log.warn(e, "Failed to read stencil layers");
+			layers.clear();
+			cover = Optional.absent();
+		}
+	}
 
+	private void readLegacyData(NBTTagCompound subTag) {
 		this.backgroundColor = subTag.getInteger(TAG_BACKGROUND);
 		final NBTTagList layersTag = subTag.getTagList(TAG_LAYERS, Constants.NBT.TAG_COMPOUND);
-		layers.clear();
 		for (int i = 0; i < layersTag.tagCount(); i++)
 			layers.push(Layer.createFromNBT(layersTag.getCompoundTagAt(i)));
 
@@ -189,31 +219,34 @@ public class SyncableBlockLayers extends SyncableObjectBase {
 		} else {
 			cover = Optional.absent();
 		}
-
 	}
 
 	public void applyPaint(int color) {
 		if (cover.isPresent()) {
-			paintOverCover(cover.get(), color);
+			if (!paintOverCover(cover.get(), color)) return;
 		} else {
 			// no stencil, covering all
+			if (layers.isEmpty() && backgroundColor == color) return;
 			layers.clear();
 			backgroundColor = color;
 		}
 		markDirty();
 	}
 
-	private void paintOverCover(Cover cover, int color) {
+	// unchanged sides are not marked dirty, so they are not resent
+	private boolean paintOverCover(Cover cover, int color) {
 		if (!layers.isEmpty()) {
 			final Layer top = layers.peek(0);
 			if (cover.hasSamePatternAndRotation(top)) {
 				// painting over last layer -> just changing color
+				if (top.color == color) return false;
 				top.color = color;
-				return;
+				return true;
 			}
 		}
 
 		layers.push(cover.paint(color));
+		return true;
 	}
 
 	public boolean rotateCover() {
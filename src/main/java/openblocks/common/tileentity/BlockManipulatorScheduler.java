@@ -0,0 +1,147 @@
+package openblocks.common.tileentity;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import java.util.Map;
+import java.util.Queue;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import openblocks.Config;
+import openmods.fakeplayer.FakePlayerPool;
+import openmods.fakeplayer.FakePlayerPool.PlayerUser;
+
+/**
+ * Collects block breaker and placer triggers and executes them at the end of world tick.
+ * All actions executed in single tick share one fake player, which is reset between actions. When tick budget is exceeded, remaining actions wait for next tick.
+ */
+public class BlockManipulatorScheduler {
+
+	public static class Stats {
+		private long scheduled;
+
+		private long merged;
+
+		private long dropped;
+
+		private long executed;
+
+		private int maxQueueDepth;
+
+		public long getScheduled() {
+			return scheduled;
+		}
+
+		public long getMerged() {
+			return merged;
+		}
+
+		public long getDropped() {
+			return dropped;
+		}
+
+		public long getExecuted() {
+			return executed;
+		}
+
+		public int getMaxQueueDepth() {
+			return maxQueueDepth;
+		}
+	}
+
+	private static class WorldQueue {
+		private final Queue<TileEntityBlockManipulator> queue = Queues.newArrayDeque();
+
+		private final Stats stats = new Stats();
+	}
+
+	public static final BlockManipulatorScheduler instance = new BlockManipulatorScheduler();
+
+	private final Map<World, WorldQueue> queues = Maps.newIdentityHashMap();
+
+	public Stats getStats(World world) {
+		final WorldQueue queue = queues.get(world);
+		return queue != null? queue.stats : new Stats();
+	}
+
+	public int getQueueDepth(World world) {
+		final WorldQueue queue = queues.get(world);
+		return queue != null? queue.queue.size() : 0;
+	}
+
+	void schedule(TileEntityBlockManipulator tile) {
+		WorldQueue queue = queues.get(tile.getWorld());
+		if (queue == null) {
+			queue = new WorldQueue();
+			queues.put(tile.getWorld(), queue);
+		}
+
+		final Stats stats = queue.stats;
+
+		// same as vanilla block events: multiple triggers before execution result in single action
+		if (tile.isScheduled) {
+			stats.merged++;
+			return;
+		}
+
+		if (queue.queue.size() >= Config.blockManipulatorQueueLimit) {
+			stats.dropped++;
+			return;
+		}
+
+		tile.isScheduled = true;
+		queue.queue.add(tile);
+		stats.scheduled++;
+		stats.maxQueueDepth = Math.max(stats.maxQueueDepth, queue.queue.size());
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent evt) {
+		if (evt.phase != Phase.END || !(evt.world instanceof WorldServer)) return;
+
+		final WorldQueue worldQueue = queues.get(evt.world);
+		if (worldQueue == null || worldQueue.queue.isEmpty()) return;
+
+		final WorldServer world = (WorldServer)evt.world;
+		final Queue<TileEntityBlockManipulator> queue = worldQueue.queue;
+		final long deadline = System.nanoTime() + Config.blockManipulatorTickTimeLimit * 1000000L;
+		final int actionLimit = Config.blockManipulatorActionsPerTick;
+
+		FakePlayerPool.instance.executeOnPlayer(world, (PlayerUser)fakePlayer -> {
+			final double x = fakePlayer.posX;
+			final double y = fakePlayer.posY;
+			final double z = fakePlayer.posZ;
+			final float yaw = fakePlayer.rotationYaw;
+			final float pitch = fakePlayer.rotationPitch;
+
+			int actions = 0;
+			// at least one action per tick, so queue always moves
+			do {
+				final TileEntityBlockManipulator tile = queue.poll();
+				tile.isScheduled = false;
+				if (tile.isInvalid() || !world.isBlockLoaded(tile.getPos())) continue;
+
+				tile.executeScheduledAction(fakePlayer);
+				actions++;
+
+				// held items and position must not leak into next action
+				fakePlayer.inventory.clear();
+				fakePlayer.setPositionAndRotation(x, y, z, yaw, pitch);
+			} while (!queue.isEmpty() && actions < actionLimit && System.nanoTime() < deadline);
+
+			worldQueue.stats.executed += actions;
+		});
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload evt) {
+		final WorldQueue queue = queues.remove(evt.getWorld());
+		if (queue != null) {
+			for (TileEntityBlockManipulator tile : queue.queue)
+				tile.isScheduled = false;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package openblocks.common.tileentity;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.util.Map;
+
+/**
+ * Decides when ticking tile should call {@code sync()}: only after change of tracked state, at most once per window.
+ * Tiles with syncables not covered by state (like side configuration changed over RPC) can opt in to infrequent periodic sync.
+ */
+public class SyncThrottle {
+
+	public static class Counter {
+		private long second = -1;
+		private int syncsInSecond;
+		private int syncsPerSecond;
+		private long totalSyncs;
+
+		private void record(long worldTime) {
+			final long currentSecond = worldTime / 20;
+			if (currentSecond != second) {
+				syncsPerSecond = (currentSecond == second + 1)? syncsInSecond : 0;
+				syncsInSecond = 0;
+				second = currentSecond;
+			}
+
+			syncsInSecond++;
+			totalSyncs++;
+		}
+
+		public int getSyncsPerSecond() {
+			return syncsPerSecond;
+		}
+
+		public long getTotalSyncs() {
+			return totalSyncs;
+		}
+	}
+
+	// tiles are created on both client and server thread
+	private static final Map<Class<?>, Counter> counters = Maps.newConcurrentMap();
+
+	public static Counter getCounter(Class<?> tileClass) {
+		return counters.computeIfAbsent(tileClass, cls -> new Counter());
+	}
+
+	public static Map<Class<?>, Counter> getCounters() {
+		return ImmutableMap.copyOf(counters);
+	}
+
+	public static final int DEFAULT_WINDOW = 4;
+
+	public static final int NO_PERIODIC_SYNC = 0;
+
+	private final Counter counter;
+
+	private final int window;
+
+	private final int periodicSyncInterval;
+
+	private long lastState;
+
+	private boolean isPending = true;
+
+	private long lastSync = Long.MIN_VALUE / 2;
+
+	public SyncThrottle(Class<?> tileClass) {
+		this(tileClass, DEFAULT_WINDOW, NO_PERIODIC_SYNC);
+	}
+
+	public SyncThrottle(Class<?> tileClass, int window, int periodicSyncInterval) {
+		this.counter = getCounter(tileClass);
+		this.window = window;
+		this.periodicSyncInterval = periodicSyncInterval;
+	}
+
+	public boolean shouldSync(long worldTime, long state) {
+		if (state != lastState) {
+			lastState = state;
+			isPending = true;
+		}
+
+		final long sinceLastSync = worldTime - lastSync;
+		final boolean periodicSync = periodicSyncInterval != NO_PERIODIC_SYNC && sinceLastSync >= periodicSyncInterval;
+		if ((isPending && sinceLastSync >= window) || periodicSync) {
+			isPending = false;
+			lastSync = worldTime;
+			counter.record(worldTime);
+			return true;
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,229 @@
+package openblocks.common.tileentity;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import javax.annotation.Nullable;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.FluidTankProperties;
+import net.minecraftforge.fluids.capability.IFluidTankProperties;
+import openblocks.Config;
+
+/**
+ * Logical storage shared by connected tanks containing same fluid.
+ * Fluid is kept as single stack and distributed into tiles layer by layer (bottom first), once per tick and only when changed.
+ */
+public class TankNetwork {
+
+	private final TileEntityTank[][] layers;
+
+	private final int tankCapacity;
+
+	private final int capacity;
+
+	@Nullable
+	private FluidStack contents;
+
+	private boolean isValid = true;
+
+	private boolean isDirty = true;
+
+	private boolean needsMerge;
+
+	private long lastUpdate = -1;
+
+	private int distributedAmount;
+
+	private TankNetwork(TileEntityTank[][] layers, int tankCapacity, @Nullable FluidStack contents) {
+		this.layers = layers;
+		this.tankCapacity = tankCapacity;
+		this.contents = contents;
+
+		int tankCount = 0;
+		for (TileEntityTank[] layer : layers)
+			tankCount += layer.length;
+
+		this.capacity = tankCount * tankCapacity;
+	}
+
+	private static boolean canConnect(@Nullable FluidStack networkFluid, @Nullable FluidStack tankFluid) {
+		return networkFluid == null || tankFluid == null || networkFluid.isFluidEqual(tankFluid);
+	}
+
+	public static TankNetwork create(TileEntityTank seed) {
+		final Set<TileEntityTank> visited = Sets.newIdentityHashSet();
+		final Queue<TileEntityTank> queue = Queues.newArrayDeque();
+		final SortedMap<Integer, List<TileEntityTank>> layers = Maps.newTreeMap();
+
+		FluidStack fluid = null;
+		int amount = 0;
+
+		visited.add(seed);
+		queue.add(seed);
+
+		while (!queue.isEmpty()) {
+			final TileEntityTank tank = queue.poll();
+			tank.releaseNetwork();
+
+			final FluidStack tankFluid = tank.getTank().getFluid();
+			if (!canConnect(fluid, tankFluid)) {
+				// queued before network fluid was known
+				visited.remove(tank);
+				continue;
+			}
+
+			if (tankFluid != null && tankFluid.amount > 0) {
+				if (fluid == null) fluid = tankFluid.copy();
+				amount += tankFluid.amount;
+			}
+
+			List<TileEntityTank> layer = layers.get(tank.getPos().getY());
+			if (layer == null) {
+				layer = Lists.newArrayList();
+				layers.put(tank.getPos().getY(), layer);
+			}
+			layer.add(tank);
+
+			for (EnumFacing side : EnumFacing.VALUES) {
+				final TileEntityTank neighbour = tank.getNeighourTank(tank.getPos().offset(side));
+				if (neighbour != null && !neighbour.isInvalid() && !visited.contains(neighbour) && canConnect(fluid, neighbour.getConnectableFluid())) {
+					visited.add(neighbour);
+					queue.add(neighbour);
+				}
+			}
+		}
+
+		if (fluid != null) fluid.amount = amount;
+
+		final TileEntityTank[][] layerArray = new TileEntityTank[layers.size()][];
+		int i = 0;
+		for (List<TileEntityTank> layer : layers.values())
+			layerArray[i++] = layer.toArray(new TileEntityTank[layer.size()]);
+
+		final TankNetwork network = new TankNetwork(layerArray, TileEntityTank.getTankCapacity(), fluid);
+		for (TileEntityTank tank : visited)
+			tank.setNetwork(network);
+
+		return network;
+	}
+
+	public boolean isValid() {
+		return isValid;
+	}
+
+	@Nullable
+	public FluidStack getFluid() {
+		return contents;
+	}
+
+	public boolean canConnect(@Nullable FluidStack fluid) {
+		return canConnect(contents, fluid);
+	}
+
+	public IFluidTankProperties[] getTankProperties() {
+		return new IFluidTankProperties[] { new FluidTankProperties(contents != null? contents.copy() : null, capacity) };
+	}
+
+	public int fill(FluidStack resource, boolean doFill) {
+		if (resource == null || resource.amount <= 0) return 0;
+		if (contents != null && !contents.isFluidEqual(resource)) return 0;
+
+		final int current = contents != null? contents.amount : 0;
+		final int filled = Math.min(resource.amount, capacity - current);
+		if (filled <= 0) return 0;
+
+		if (doFill) {
+			if (contents == null) {
+				contents = resource.copy();
+				contents.amount = filled;
+				// tanks of this fluid may have been left out when this network was empty
+				needsMerge = true;
+			} else {
+				contents.amount += filled;
+			}
+			isDirty = true;
+		}
+
+		return filled;
+	}
+
+	@Nullable
+	public FluidStack drain(FluidStack resource, boolean doDrain) {
+		if (resource == null || contents == null || !contents.isFluidEqual(resource)) return null;
+		return drain(resource.amount, doDrain);
+	}
+
+	@Nullable
+	public FluidStack drain(int maxDrain, boolean doDrain) {
+		if (contents == null || maxDrain <= 0) return null;
+
+		final int drained = Math.min(maxDrain, contents.amount);
+		final FluidStack result = contents.copy();
+		result.amount = drained;
+
+		if (doDrain) {
+			contents.amount -= drained;
+			if (contents.amount <= 0) contents = null;
+			isDirty = true;
+		}
+
+		return result;
+	}
+
+	public void update(long worldTime) {
+		if (lastUpdate == worldTime) return;
+		lastUpdate = worldTime;
+
+		if (needsMerge) {
+			release();
+			return;
+		}
+
+		if (isDirty) {
+			final int amount = contents != null? contents.amount : 0;
+			if (Math.abs(amount - distributedAmount) >= Config.tankFluidUpdateThreshold) distribute();
+		}
+	}
+
+	public void flush() {
+		if (isValid && isDirty) distribute();
+	}
+
+	public void release() {
+		if (isValid) {
+			flush();
+			isValid = false;
+		}
+	}
+
+	private void distribute() {
+		int remaining = contents != null? contents.amount : 0;
+		distributedAmount = remaining;
+
+		for (TileEntityTank[] layer : layers) {
+			final int layerAmount = Math.min(remaining, layer.length * tankCapacity);
+			remaining -= layerAmount;
+
+			final int perTank = layerAmount / layer.length;
+			int extra = layerAmount % layer.length;
+
+			for (TileEntityTank tank : layer) {
+				int amount = perTank;
+				if (extra > 0) {
+					amount++;
+					extra--;
+				}
+
+				tank.updateFromNetwork(contents, amount);
+			}
+		}
+
+		isDirty = false;
+	}
+}
@@ -87,6 +87,9 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 	private SyncableSides outputSides;
 	private SyncableSides xpSides;
 	private SyncableTank tank;
+
+	private final FluidXpUtils.ConverterCache xpConverter = new FluidXpUtils.ConverterCache();
+
 	private SyncableFlags automaticSlots;
 
 	private final GenericInventory inventory = registerInventoryCallback(new TileEntityInventory(this, "autoanvil", true, 3) {
@@ -174,7 +177,7 @@ public class TileEntityAutoAnvil extends SyncedTileEntity implements IHasGui, II
 			int xpCost = EnchantmentUtils.getExperienceForLevel(levelCost);
 
 			final FluidStack contents = tank.getFluid();
-			final java.util.Optional<IFluidXpConverter> maybeConverter = FluidXpUtils.getConverter(contents);
+			final java.util.Optional<IFluidXpConverter> maybeConverter = xpConverter.getConverter(contents);
 			if (maybeConverter.isPresent()) {
 				final IFluidXpConverter converter = maybeConverter.get();
 				int liquidXpCost = converter.xpToFluid(xpCost);
@@ -1,6 +1,6 @@
 package openblocks.common.tileentity;
 
-import java.util.List;
+import com.google.common.collect.ImmutableSetMultimap;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
@@ -9,6 +9,7 @@ import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.ISidedInventory;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -21,6 +22,7 @@ import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.oredict.OreDictionary;
 import openblocks.client.gui.GuiAutoEnchantmentTable;
+import openblocks.common.BlockChangeWatcher;
 import openblocks.common.FluidXpUtils;
 import openblocks.common.FluidXpUtils.IFluidXpConverter;
 import openblocks.common.container.ContainerAutoEnchantmentTable;
@@ -79,6 +81,9 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 	}
 
 	private SyncableTank tank;
+
+	private final FluidXpUtils.ConverterCache xpConverter = new FluidXpUtils.ConverterCache();
+
 	private SyncableSides inputSides;
 	private SyncableSides lapisSides;
 	private SyncableSides outputSides;
@@ -91,24 +96,51 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 
 	private long seed;
 
-	private static final int POWER_CHECK_PERIOD = 20;
+	private boolean powerNeedsUpdate = true;
+
+	private BlockChangeWatcher.Watch bookshelfWatch;
+
+	private VanillaEnchantLogic enchantPlan;
+
+	private boolean enchantPlanValid;
 
-	private int powerCheckCountdown = 0;
+	@Nonnull
+	private ItemStack plannedTool = ItemStack.EMPTY;
+
+	private Level plannedLevel;
+
+	private int plannedPower;
+
+	private long plannedSeed;
 
 	private boolean needsTankUpdate;
 
-	private final GenericInventory inventory = new TileEntityInventory(this, "autoenchant", true, 3) {
-		final List<ItemStack> lapis = OreDictionary.getOres("gemLapis");
+	// side and auto slot configuration is changed over RPC, without explicit sync
+	private final SyncThrottle syncThrottle = new SyncThrottle(TileEntityAutoEnchantmentTable.class, SyncThrottle.DEFAULT_WINDOW, 20);
 
+	private ItemMover itemMover;
+
+	// built once ore dictionary is complete, read by both client and server thread
+	private static volatile ImmutableSetMultimap<Item, Integer> lapisItems = ImmutableSetMultimap.of();
+
+	public static void initLapisItems() {
+		final ImmutableSetMultimap.Builder<Item, Integer> items = ImmutableSetMultimap.builder();
+		for (ItemStack ore : OreDictionary.getOres("gemLapis"))
+			items.put(ore.getItem(), ore.getItemDamage());
+		lapisItems = items.build();
+	}
+
+	private static boolean isLapis(@Nonnull ItemStack stack) {
+		final ImmutableSetMultimap<Item, Integer> lapisItems = TileEntityAutoEnchantmentTable.lapisItems;
+		final Item item = stack.getItem();
+		return lapisItems.containsEntry(item, OreDictionary.WILDCARD_VALUE) || lapisItems.containsEntry(item, stack.getItemDamage());
+	}
+
+	private final GenericInventory inventory = new TileEntityInventory(this, "autoenchant", true, 3) {
 		@Override
 		public boolean isItemValidForSlot(int slot, @Nonnull ItemStack itemstack) {
 			if (slot == Slots.tool.ordinal()) return itemstack.isItemEnchantable();
-			if (slot == Slots.lapis.ordinal()) {
-				for (ItemStack ore : lapis)
-					if (OreDictionary.itemMatches(ore, itemstack, false)) return true;
-
-				return false;
-			}
+			if (slot == Slots.lapis.ordinal()) return isLapis(itemstack);
 			return false;
 		}
 	};
@@ -273,32 +305,46 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 				tank.fillFromSides(80, world, pos, xpSides.getValue());
 			}
 
-			if (powerCheckCountdown-- <= 0) {
-				powerCheckCountdown = POWER_CHECK_PERIOD;
+			if (bookshelfWatch == null) {
+				// covers bookshelves and blocks between them and table
+				bookshelfWatch = BlockChangeWatcher.instance.watch(world, pos.add(-2, 0, -2), pos.add(2, 1, 2), (changedPos, state) -> powerNeedsUpdate = true);
+				powerNeedsUpdate = true;
+			}
+
+			if (powerNeedsUpdate) {
+				powerNeedsUpdate = false;
 				final int power = (int)EnchantmentUtils.getPower(world, getPos());
 				availablePower.set(power);
 			}
 
-			final ItemMover mover = new ItemMover(world, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+			if (shouldAutoOutput() || shouldAutoInputTool() || shouldAutoInputLapis()) {
+				final ItemMover mover = getItemMover();
 
-			if (shouldAutoOutput() && hasStack(Slots.output)) {
-				mover.setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
-			}
+				if (shouldAutoOutput() && hasStack(Slots.output)) {
+					mover.setSides(outputSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+				}
 
-			if (shouldAutoInputTool() && hasSpace(Slots.tool)) {
-				mover.setSides(inputSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
-			}
+				if (shouldAutoInputTool() && hasSpace(Slots.tool)) {
+					mover.setSides(inputSides.getValue()).pullToSlot(inventory.getHandler(), Slots.tool.ordinal());
+				}
 
-			if (shouldAutoInputLapis() && hasSpace(Slots.lapis)) {
-				mover.setSides(lapisSides.getValue()).pullToSlot(inventory.getHandler(), Slots.lapis.ordinal());
+				if (shouldAutoInputLapis() && hasSpace(Slots.lapis)) {
+					mover.setSides(lapisSides.getValue()).pullToSlot(inventory.getHandler(), Slots.lapis.ordinal());
+				}
 			}
 
 			tryEnchantItem();
 
-			sync();
+			final long syncState = ((long)availablePower.get() << 32) | tank.getFluidAmount();
+			if (syncThrottle.shouldSync(world.getTotalWorldTime(), syncState)) sync();
 		}
 	}
 
+	private ItemMover getItemMover() {
+		if (itemMover == null) itemMover = new ItemMover(world, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+		return itemMover;
+	}
+
 	private void tryEnchantItem() {
 		final ItemStack tool = getStack(Slots.tool);
 		if (tool.isEmpty() || !tool.isItemEnchantable()) return;
@@ -311,14 +357,14 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 		final int power = Math.min(availablePower.get(), powerLimit.get());
 		if (power <= 0) return;
 
-		final VanillaEnchantLogic logic = new VanillaEnchantLogic(seed);
-		if (!logic.setup(tool, selectedLevel.get(), power)) return;
+		final VanillaEnchantLogic logic = getEnchantPlan(tool, selectedLevel.get(), power);
+		if (logic == null) return;
 
 		if (lapis.getCount() < logic.getLapisCost()) return;
 
 		final int levelsRequirement = logic.getLevelRequirement();
 		final FluidStack contents = tank.getFluid();
-		final Optional<IFluidXpConverter> maybeConverter = FluidXpUtils.getConverter(contents);
+		final Optional<IFluidXpConverter> maybeConverter = xpConverter.getConverter(contents);
 		if (!maybeConverter.isPresent()) return;
 
 		final IFluidXpConverter converter = maybeConverter.get();
@@ -338,6 +384,28 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 		tank.drain(liquidXpCost, true);
 
 		this.seed = seedGenerator.nextLong();
+		this.enchantPlan = null;
+		this.plannedTool = ItemStack.EMPTY;
+	}
+
+	private VanillaEnchantLogic getEnchantPlan(ItemStack tool, Level level, int power) {
+		final boolean isSamePlan = plannedTool != ItemStack.EMPTY &&
+				plannedLevel == level &&
+				plannedPower == power &&
+				plannedSeed == seed &&
+				ItemStack.areItemStacksEqual(plannedTool, tool);
+
+		if (!isSamePlan) {
+			final VanillaEnchantLogic logic = new VanillaEnchantLogic(seed);
+			enchantPlanValid = logic.setup(tool, level, power);
+			enchantPlan = logic;
+			plannedTool = tool.copy();
+			plannedLevel = level;
+			plannedPower = power;
+			plannedSeed = seed;
+		}
+
+		return enchantPlanValid? enchantPlan : null;
 	}
 
 	private boolean shouldAutoInputLapis() {
@@ -476,6 +544,25 @@ public class TileEntityAutoEnchantmentTable extends SyncedTileEntity implements
 		return selectedLevel;
 	}
 
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		removeBookshelfWatch();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		removeBookshelfWatch();
+	}
+
+	private void removeBookshelfWatch() {
+		if (bookshelfWatch != null) {
+			bookshelfWatch.remove();
+			bookshelfWatch = null;
+		}
+	}
+
 	@Override
 	public void validate() {
 		super.validate();
@@ -10,14 +10,13 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
 import openblocks.Config;
 import openmods.fakeplayer.BreakBlockAction;
-import openmods.fakeplayer.FakePlayerPool;
+import openmods.fakeplayer.OpenModsFakePlayer;
 import openmods.fixers.GenericInventoryTeFixerWalker;
 import openmods.fixers.RegisterFixer;
 import openmods.include.IncludeInterface;
@@ -46,8 +45,8 @@ public class TileEntityBlockBreaker extends TileEntityBlockManipulator {
 	}
 
 	@Override
-	protected void doWork(IBlockState targetState, BlockPos target, EnumFacing direction) {
-		final List<EntityItem> drops = FakePlayerPool.instance.executeOnPlayer((WorldServer)world, new BreakBlockAction(world, target).findEffectiveTool());
+	protected void doWork(OpenModsFakePlayer fakePlayer, IBlockState targetState, BlockPos target, EnumFacing direction) {
+		final List<EntityItem> drops = new BreakBlockAction(world, target).findEffectiveTool().usePlayer(fakePlayer);
 
 		if (drops.isEmpty()) return;
 
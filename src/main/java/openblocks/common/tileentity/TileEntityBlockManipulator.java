@@ -6,18 +6,18 @@ import net.minecraft.init.SoundEvents;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.WorldServer;
 import openblocks.common.block.BlockBlockManpulatorBase;
 import openmods.api.INeighbourAwareTile;
+import openmods.fakeplayer.OpenModsFakePlayer;
 import openmods.tileentity.OpenTileEntity;
 import openmods.utils.BlockNotifyFlags;
 
 public abstract class TileEntityBlockManipulator extends OpenTileEntity implements INeighbourAwareTile, ITickable {
 
-	private static final int EVENT_ACTIVATE = 3;
-
 	private int actionCount = 0;
 
+	boolean isScheduled;
+
 	public TileEntityBlockManipulator() {}
 
 	protected abstract int getActionLimit();
@@ -67,38 +67,27 @@ public abstract class TileEntityBlockManipulator extends OpenTileEntity implemen
 
 		if (world.isBlockLoaded(target)) {
 			final IBlockState targetState = world.getBlockState(target);
-			if (canWork(targetState, target, direction)) {
-				sendBlockEvent(EVENT_ACTIVATE, 0);
-				actionCount++;
-			}
+			if (canWork(targetState, target, direction))
+				BlockManipulatorScheduler.instance.schedule(this);
 		}
 	}
 
-	@Override
-	public boolean receiveClientEvent(int event, int param) {
-		if (event == EVENT_ACTIVATE) {
-			doWork();
-			return true;
-		}
-
-		return false;
-	}
-
-	private void doWork() {
-		if (world instanceof WorldServer) {
-			final EnumFacing direction = getFront();
-			final BlockPos target = pos.offset(direction);
+	void executeScheduledAction(OpenModsFakePlayer fakePlayer) {
+		final EnumFacing direction = getFront();
+		final BlockPos target = pos.offset(direction);
 
-			if (world.isBlockLoaded(target)) {
-				final IBlockState targetState = world.getBlockState(target);
-				if (canWork(targetState, target, direction))
-					doWork(targetState, target, direction);
+		if (world.isBlockLoaded(target)) {
+			final IBlockState targetState = world.getBlockState(target);
+			if (canWork(targetState, target, direction)) {
+				doWork(fakePlayer, targetState, target, direction);
+				// only actions that actually happened count towards limit and repeat on next tick
+				actionCount++;
 			}
 		}
 	}
 
 	protected abstract boolean canWork(IBlockState targetState, BlockPos target, EnumFacing direction);
 
-	protected abstract void doWork(IBlockState targetState, BlockPos target, EnumFacing direction);
+	protected abstract void doWork(OpenModsFakePlayer fakePlayer, IBlockState targetState, BlockPos target, EnumFacing direction);
 
 }
@@ -10,7 +10,6 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.items.CapabilityItemHandler;
 import openblocks.Config;
@@ -20,7 +19,7 @@ import openblocks.common.block.BlockBlockPlacer;
 import openblocks.common.container.ContainerBlockPlacer;
 import openmods.api.IHasGui;
 import openmods.api.IInventoryCallback;
-import openmods.fakeplayer.FakePlayerPool;
+import openmods.fakeplayer.OpenModsFakePlayer;
 import openmods.fakeplayer.UseItemAction;
 import openmods.fixers.GenericInventoryTeFixerWalker;
 import openmods.fixers.RegisterFixer;
@@ -66,7 +65,7 @@ public class TileEntityBlockPlacer extends TileEntityBlockManipulator implements
 	}
 
 	@Override
-	protected void doWork(IBlockState targetState, BlockPos target, EnumFacing direction) {
+	protected void doWork(OpenModsFakePlayer fakePlayer, IBlockState targetState, BlockPos target, EnumFacing direction) {
 		ItemStack stack = ItemStack.EMPTY;
 		int slotId = 0;
 
@@ -82,13 +81,13 @@ public class TileEntityBlockPlacer extends TileEntityBlockManipulator implements
 		// * 2, since some blocks may take into account player height, so distance must be greater than that
 		final BlockPos playerPos = target.offset(direction, 2);
 
-		final ItemStack result = FakePlayerPool.instance.executeOnPlayer((WorldServer)world, new UseItemAction(
+		final ItemStack result = new UseItemAction(
 				stack,
 				new Vec3d(playerPos),
 				new Vec3d(target),
 				new Vec3d(target).addVector(0.5, 0.5, 0.5),
 				direction.getOpposite(),
-				EnumHand.MAIN_HAND));
+				EnumHand.MAIN_HAND).usePlayer(fakePlayer);
 
 		if (!ItemStack.areItemStacksEqual(result, stack)) {
 			skipActionOnInventoryUpdate = true;
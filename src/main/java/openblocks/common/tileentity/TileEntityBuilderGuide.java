@@ -1,5 +1,10 @@
 package openblocks.common.tileentity;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import javax.annotation.Nonnull;
 import net.minecraft.block.Block;
@@ -14,8 +19,13 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import openblocks.Config;
+import openblocks.common.BlockChangeWatcher;
 import openblocks.rpc.IGuideAnimationTrigger;
+import openblocks.shapes.CoordShape;
 import openmods.shapes.IShapeable;
+import openmods.utils.BlockNotifyFlags;
 import openmods.utils.render.GeometryUtils;
 
 public class TileEntityBuilderGuide extends TileEntityGuide implements IGuideAnimationTrigger {
@@ -29,6 +39,63 @@ public class TileEntityBuilderGuide extends TileEntityGuide implements IGuideAni
 
 	private int ticks;
 
+	private static class CreativeFillJob {
+		private final CoordShape shape;
+
+		// shape indices, grouped by chunk
+		private final int[] order;
+
+		private int next;
+
+		private final EntityPlayerMP player;
+		private final Block block;
+		private final int blockMeta;
+		private final EnumFacing side;
+		private final float hitX;
+		private final float hitY;
+		private final float hitZ;
+
+		public CreativeFillJob(BlockPos origin, CoordShape shape, EntityPlayerMP player, Block block, int blockMeta, EnumFacing side, float hitX, float hitY, float hitZ) {
+			this.shape = shape;
+			this.player = player;
+			this.block = block;
+			this.blockMeta = blockMeta;
+			this.side = side;
+			this.hitX = hitX;
+			this.hitY = hitY;
+			this.hitZ = hitZ;
+
+			final int size = shape.size();
+			final Map<Long, Integer> chunkIds = Maps.newHashMap();
+			final long[] keys = new long[size];
+			for (int i = 0; i < size; i++) {
+				final long chunk = ChunkPos.asLong((origin.getX() + shape.getX(i)) >> 4, (origin.getZ() + shape.getZ(i)) >> 4);
+				Integer chunkId = chunkIds.get(chunk);
+				if (chunkId == null) {
+					chunkId = chunkIds.size();
+					chunkIds.put(chunk, chunkId);
+				}
+				keys[i] = ((long)chunkId << 32) | i;
+			}
+
+			Arrays.sort(keys);
+			this.order = new int[size];
+			for (int i = 0; i < size; i++)
+				order[i] = (int)keys[i];
+		}
+
+		public boolean isFinished() {
+			return next >= order.length;
+		}
+	}
+
+	private CreativeFillJob creativeFillJob;
+
+	// all shape elements before this index were non-air on last check
+	private int fillCursor;
+
+	private BlockChangeWatcher.Watch shapeWatch;
+
 	@Override
 	public boolean onItemUse(EntityPlayerMP player, @Nonnull ItemStack heldStack, EnumFacing side, float hitX, float hitY, float hitZ) {
 		if (active.get()) {
@@ -54,15 +121,89 @@ public class TileEntityBuilderGuide extends TileEntityGuide implements IGuideAni
 	public void update() {
 		super.update();
 		if (world.isRemote) ticks++;
+		else if (creativeFillJob != null) continueCreativeFill();
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		removeShapeWatch();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		removeShapeWatch();
+	}
+
+	@Override
+	protected void onShapeChanged(CoordShape shape) {
+		fillCursor = 0;
+
+		if (!world.isRemote) {
+			removeShapeWatch();
+			shapeWatch = BlockChangeWatcher.instance.watch(world, pos.add(shape.getMin()), pos.add(shape.getMax()), (changedPos, newState) -> {
+				// new hole may appear before cursor
+				if (newState.getBlock().isAir(newState, world, changedPos)) fillCursor = 0;
+			});
+		}
+	}
+
+	private void removeShapeWatch() {
+		if (shapeWatch != null) {
+			shapeWatch.remove();
+			shapeWatch = null;
+		}
 	}
 
 	private void creativeReplaceBlocks(EntityPlayerMP player, ItemStack heldStack, Block block, int blockMeta, EnumFacing side, float hitX, float hitY, float hitZ) {
 		// TODO verify
-		for (BlockPos coord : getShapeSafe().getCoords()) {
-			final BlockPos clickPos = pos.add(coord);
-			final IBlockState state = block.getStateForPlacement(world, clickPos, side, hitX, hitY, hitZ, blockMeta, player, EnumHand.MAIN_HAND);
-			world.setBlockState(clickPos, state);
+		creativeFillJob = new CreativeFillJob(pos, getShapeSafe(), player, block, blockMeta, side, hitX, hitY, hitZ);
+		continueCreativeFill();
+	}
+
+	private void continueCreativeFill() {
+		final CreativeFillJob job = creativeFillJob;
+		if (job.player.isDead || job.player.world != world) {
+			creativeFillJob = null;
+			return;
+		}
+
+		final CoordShape shape = job.shape;
+		// blocks placed in current chunk, neighbours are notified when job moves to next chunk
+		final List<BlockPos> placed = Lists.newArrayList();
+		long currentChunk = Long.MIN_VALUE;
+
+		for (int budget = Config.guideCreativeFillBlocksPerTick; budget > 0 && !job.isFinished(); budget--) {
+			final int index = job.order[job.next++];
+			final BlockPos clickPos = pos.add(shape.getX(index), shape.getY(index), shape.getZ(index));
+			if (clickPos.getY() < 0 || clickPos.getY() >= 256 || !world.isBlockLoaded(clickPos)) continue;
+
+			final long chunk = ChunkPos.asLong(clickPos.getX() >> 4, clickPos.getZ() >> 4);
+			if (chunk != currentChunk) {
+				notifyPlacedNeighbours(placed, job.block);
+				currentChunk = chunk;
+			}
+
+			final IBlockState state = job.block.getStateForPlacement(world, clickPos, job.side, job.hitX, job.hitY, job.hitZ, job.blockMeta, job.player, EnumHand.MAIN_HAND);
+			// client updates are collected per chunk by player chunk map, neighbour updates are sent below
+			if (world.getBlockState(clickPos) != state && world.setBlockState(clickPos, state, BlockNotifyFlags.SEND_TO_CLIENTS))
+				placed.add(clickPos);
+		}
+
+		notifyPlacedNeighbours(placed, job.block);
+
+		if (job.isFinished()) creativeFillJob = null;
+	}
+
+	// same updates as flag 3, just deferred until whole chunk batch is placed
+	private void notifyPlacedNeighbours(List<BlockPos> placed, Block block) {
+		for (BlockPos placedPos : placed) {
+			world.notifyNeighborsOfStateChange(placedPos, block, true);
+			if (world.getBlockState(placedPos).hasComparatorInputOverride()) world.updateComparatorOutputLevel(placedPos, block);
 		}
+
+		placed.clear();
 	}
 
 	@Override
@@ -72,18 +213,31 @@ public class TileEntityBuilderGuide extends TileEntityGuide implements IGuideAni
 	}
 
 	private boolean survivalPlaceBlocks(EntityPlayerMP player, @Nonnull ItemStack heldItem, Block block, int blockMeta, EnumFacing side, float hitX, float hitY, float hitZ) {
-		for (BlockPos relCoord : getShapeSafe().getCoords()) {
-			BlockPos absPos = pos.add(relCoord);
-			if (world.isBlockLoaded(absPos) && world.isAirBlock(absPos) && absPos.getY() >= 0 && absPos.getY() < 256) {
+		final CoordShape shape = getShapeSafe();
+		// cursor can only move over continuous range of filled coordinates
+		boolean canAdvanceCursor = true;
+
+		for (int i = fillCursor; i < shape.size(); i++) {
+			final BlockPos absPos = pos.add(shape.getX(i), shape.getY(i), shape.getZ(i));
+			if (!world.isBlockLoaded(absPos)) {
+				canAdvanceCursor = false;
+				continue;
+			}
+
+			if (world.isAirBlock(absPos) && absPos.getY() >= 0 && absPos.getY() < 256) {
 				final EnumActionResult placeResult = player.interactionManager.processRightClickBlock(player, world, heldItem, EnumHand.MAIN_HAND, absPos, side, hitX, hitY, hitZ);
 
 				if (placeResult == EnumActionResult.SUCCESS) {
+					if (canAdvanceCursor) fillCursor = i + 1;
 					final int stateId = Block.getStateId(world.getBlockState(absPos));
 					createServerRpcProxy(IGuideAnimationTrigger.class).trigger(absPos, stateId);
 					return true;
 				}
-			}
 
+				canAdvanceCursor = false;
+			} else if (canAdvanceCursor) {
+				fillCursor = i + 1;
+			}
 		}
 
 		return false;
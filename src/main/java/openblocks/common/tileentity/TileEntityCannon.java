@@ -1,9 +1,13 @@
 package openblocks.common.tileentity;
 
+import com.google.common.collect.Lists;
+import java.util.List;
 import javax.annotation.Nonnull;
+import net.minecraft.block.Block;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.ITickable;
@@ -14,11 +18,13 @@ import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.items.IItemHandler;
+import openblocks.Config;
 import openblocks.OpenBlocks;
 import openblocks.api.IPointable;
 import openblocks.common.entity.EntityItemProjectile;
 import openblocks.rpc.ITriggerable;
 import openmods.Log;
+import openmods.api.INeighbourAwareTile;
 import openmods.api.ISurfaceAttachment;
 import openmods.fixers.GenericInventoryTeFixerWalker;
 import openmods.fixers.RegisterFixer;
@@ -28,7 +34,7 @@ import openmods.utils.InventoryUtils;
 import openmods.utils.render.GeometryUtils;
 
 @RegisterFixer(GenericInventoryTeFixerWalker.class)
-public class TileEntityCannon extends SyncedTileEntity implements IPointable, ISurfaceAttachment, ITriggerable, ITickable {
+public class TileEntityCannon extends SyncedTileEntity implements IPointable, ISurfaceAttachment, ITriggerable, ITickable, INeighbourAwareTile {
 
 	/*
 	 * Blocks and Entities have a right-angle offset
@@ -42,6 +48,7 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 	private static final int KNOB_LOB_VERTICAL_MUL = 4;
 	private static final int KNOB_LOB_HORIZONTAL_MUL = 1;
 	private static final int KNOB_LOB_BONUS = 5;
+	private static final double CONVERGENCE_EPSILON = 1e-4;
 
 	public SyncableDouble targetPitch;
 	public SyncableDouble targetYaw;
@@ -58,6 +65,23 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 
 	private Vec3d projectileOrigin = null;
 
+	private static class ItemSource {
+		private final BlockPos pos;
+		private final TileEntity te;
+		private final IItemHandler handler;
+
+		public ItemSource(BlockPos pos, TileEntity te, IItemHandler handler) {
+			this.pos = pos;
+			this.te = te;
+			this.handler = handler;
+		}
+	}
+
+	// neighbour handlers, resolved again after neighbour change
+	private List<ItemSource> sources;
+	private int sourceCursor;
+	private int slotCursor;
+
 	@Override
 	protected void createSyncedFields() {
 		targetPitch = new SyncableDouble();
@@ -79,27 +103,29 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 			currentYaw = 0;
 		}
 
-		// ugly, need to clean
-		currentPitch = currentPitch - ((currentPitch - targetPitch.get()) / KNOB_PITCH_CHANGE_SPEED);
-		currentYaw = GeometryUtils.normalizeAngle(currentYaw);
+		if (!isAtRest()) {
+			// ugly, need to clean
+			currentPitch = currentPitch - ((currentPitch - targetPitch.get()) / KNOB_PITCH_CHANGE_SPEED);
+			currentYaw = GeometryUtils.normalizeAngle(currentYaw);
 
-		final double targetYaw = GeometryUtils.normalizeAngle(this.targetYaw.get());
-		if (Math.abs(currentYaw - targetYaw) < KNOB_YAW_CHANGE_SPEED) currentYaw = targetYaw;
-		else {
-			double dist = GeometryUtils.getAngleDistance(currentYaw, targetYaw);
-			currentYaw += KNOB_YAW_CHANGE_SPEED * Math.signum(dist);
-		}
+			final double targetYaw = GeometryUtils.normalizeAngle(this.targetYaw.get());
+			if (Math.abs(currentYaw - targetYaw) < KNOB_YAW_CHANGE_SPEED) currentYaw = targetYaw;
+			else {
+				double dist = GeometryUtils.getAngleDistance(currentYaw, targetYaw);
+				currentYaw += KNOB_YAW_CHANGE_SPEED * Math.signum(dist);
+			}
 
-		currentSpeed = currentSpeed - ((currentSpeed - targetSpeed.get()) / KNOB_VEL_CHANGE_SPEED);
+			currentSpeed = currentSpeed - ((currentSpeed - targetSpeed.get()) / KNOB_VEL_CHANGE_SPEED);
 
-		invalidateMotion();
+			if (Math.abs(currentPitch - targetPitch.get()) < CONVERGENCE_EPSILON) currentPitch = targetPitch.get();
+			if (Math.abs(currentSpeed - targetSpeed.get()) < CONVERGENCE_EPSILON) currentSpeed = targetSpeed.get();
+
+			invalidateMotion();
+		}
 
 		if (!world.isRemote) {
 			if (world.getTotalWorldTime() % 20 == 0) {
-				if (world.isBlockIndirectlyGettingPowered(pos) > 0) {
-					ItemStack stack = findStack();
-					if (!stack.isEmpty()) fireStack(stack);
-				}
+				if (world.isBlockIndirectlyGettingPowered(pos) > 0) fireVolley();
 			}
 		} else {
 			if (ticksSinceLastFire < 100) {
@@ -108,14 +134,62 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		}
 	}
 
+	private boolean isAtRest() {
+		return currentPitch == targetPitch.get() &&
+				currentSpeed == targetSpeed.get() &&
+				currentYaw == GeometryUtils.normalizeAngle(targetYaw.get());
+	}
+
+	@Override
+	public void onNeighbourChanged(BlockPos neighbourPos, Block neighbourBlock) {
+		sources = null;
+	}
+
+	private boolean isStale(ItemSource source) {
+		// handlers of unloaded or removed neighbours still accept extraction, so they can't be used
+		return source.te.isInvalid() || !world.isBlockLoaded(source.pos);
+	}
+
+	private List<IItemHandler> getSources() {
+		if (sources != null && sources.stream().anyMatch(this::isStale)) sources = null;
+
+		if (sources == null) {
+			sources = Lists.newArrayList();
+			for (EnumFacing direction : EnumFacing.VALUES) {
+				final BlockPos neighbourPos = pos.offset(direction);
+				if (!world.isBlockLoaded(neighbourPos)) continue;
+				final TileEntity te = world.getTileEntity(neighbourPos);
+				if (te == null) continue;
+				final IItemHandler inventory = InventoryUtils.tryGetHandler(world, neighbourPos, direction.getOpposite());
+				if (inventory != null) sources.add(new ItemSource(neighbourPos, te, inventory));
+			}
+
+			sourceCursor = 0;
+			slotCursor = 0;
+		}
+
+		final List<IItemHandler> handlers = Lists.newArrayListWithCapacity(sources.size());
+		for (ItemSource source : sources)
+			handlers.add(source.handler);
+		return handlers;
+	}
+
 	@Nonnull
-	private ItemStack findStack() {
-		for (EnumFacing direction : EnumFacing.VALUES) {
-			final IItemHandler inventory = InventoryUtils.tryGetHandler(world, pos.offset(direction), direction.getOpposite());
-			if (inventory != null) {
-				for (int i = 0; i < inventory.getSlots(); i++) {
-					final ItemStack stack = inventory.extractItem(i, 64, false);
-					if (!stack.isEmpty()) return stack;
+	private ItemStack findStack(List<IItemHandler> sources) {
+		// continue from last used slot, instead of scanning again from first one
+		for (int s = 0; s < sources.size(); s++) {
+			final int sourceIndex = (sourceCursor + s) % sources.size();
+			final IItemHandler inventory = sources.get(sourceIndex);
+			final int slots = inventory.getSlots();
+			final int firstSlot = (sourceIndex == sourceCursor && slotCursor < slots)? slotCursor : 0;
+
+			for (int i = 0; i < slots; i++) {
+				final int slot = (firstSlot + i) % slots;
+				final ItemStack stack = inventory.extractItem(slot, 64, false);
+				if (!stack.isEmpty()) {
+					sourceCursor = sourceIndex;
+					slotCursor = slot;
+					return stack;
 				}
 			}
 		}
@@ -123,10 +197,26 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		return ItemStack.EMPTY;
 	}
 
-	private void fireStack(@Nonnull ItemStack stack) {
-		final ITriggerable rpc = createServerRpcProxy(ITriggerable.class);
-		rpc.trigger();
+	private void fireVolley() {
+		final List<IItemHandler> sources = getSources();
+		if (sources.isEmpty()) return;
+
+		boolean fired = false;
+		for (int i = 0; i < Config.cannonVolleySize; i++) {
+			final ItemStack stack = findStack(sources);
+			if (stack.isEmpty()) break;
+			fireStack(stack);
+			fired = true;
+		}
+
+		if (fired) {
+			final ITriggerable rpc = createServerRpcProxy(ITriggerable.class);
+			rpc.trigger();
+			playSoundAtBlock(OpenBlocks.Sounds.BLOCK_CANNON_ACTIVATE, 0.2f, 1.0f);
+		}
+	}
 
+	private void fireStack(@Nonnull ItemStack stack) {
 		// projectileOrigin is not used here, it's used for the calculations below.
 		EntityItem item = new EntityItemProjectile(world, pos.getX() + 0.5, pos.getY(), pos.getZ(), stack);
 		item.setDefaultPickupDelay();
@@ -137,7 +227,6 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 		item.motionY = motion.y;
 		item.motionZ = motion.z;
 		world.spawnEntity(item);
-		playSoundAtBlock(OpenBlocks.Sounds.BLOCK_CANNON_ACTIVATE, 0.2f, 1.0f);
 	}
 
 	@Override
@@ -229,6 +318,7 @@ public class TileEntityCannon extends SyncedTileEntity implements IPointable, IS
 
 		currentYaw = targetYaw.get();
 		currentPitch = targetPitch.get();
+		invalidateMotion();
 
 		trySync();
 	}
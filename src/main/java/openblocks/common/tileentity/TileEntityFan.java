@@ -13,8 +13,8 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import openblocks.Config;
+import openblocks.common.EntityIndex;
 import openmods.api.IActivateAwareTile;
 import openmods.api.IAddAwareTile;
 import openmods.api.INeighbourAwareTile;
@@ -29,7 +29,7 @@ import openmods.utils.BlockUtils;
 public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile, INeighbourAwareTile, IAddAwareTile, ITickable, IActivateAwareTile {
 
 	private static final int ANGLE_SPEED_PER_REDSTONE_POWER = 45;
-	private static final double CONE_HALF_APERTURE = 1.2 / 2.0;
+	private static final double COS_CONE_HALF_APERTURE = Math.cos(1.2 / 2.0);
 
 	private SyncableFloat angle;
 	private SyncableByte power;
@@ -38,6 +38,22 @@ public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile,
 
 	private EvalModelState baseClipState = EvalModelState.EMPTY;
 
+	private final EntityIndex.Stats entityQueryStats = new EntityIndex.Stats();
+
+	// cone is recalculated only when angle or range changes
+	private float coneAngle;
+	private double coneRange;
+
+	private double apexX;
+	private double apexY;
+	private double apexZ;
+
+	private double axisX;
+	private double axisY;
+	private double axisZ;
+
+	private AxisAlignedBB searchBox;
+
 	public TileEntityFan() {}
 
 	@Override
@@ -66,57 +82,60 @@ public class TileEntityFan extends SyncedTileEntity implements IPlaceAwareTile,
 		final double maxForce = Config.fanForce * redstonePower;
 		if (maxForce <= 0) return;
 
-		List<Entity> entities = world.getEntitiesWithinAABB(Entity.class, getEntitySearchBoundingBox());
-		if (entities.isEmpty()) return;
+		updateCone();
 
-		double angle = Math.toRadians(getAngle() - 90);
-		final Vec3d blockPos = getConeApex(angle);
-		final Vec3d basePos = getConeBaseCenter(angle);
-		final Vec3d coneAxis = new Vec3d(basePos.x - blockPos.x, basePos.y - blockPos.y, basePos.z - blockPos.z);
+		List<Entity> entities = EntityIndex.instance.getEntities(world, Entity.class, searchBox, entityQueryStats);
+		if (entities.isEmpty()) return;
 
+		final double range = Config.fanRange;
 		for (Entity entity : entities) {
 			if (entity instanceof EntityPlayer && ((EntityPlayer)entity).capabilities.isCreativeMode) continue;
-			Vec3d directionVec = new Vec3d(
-					entity.posX - blockPos.x,
-					entity.posY - blockPos.y,
-					entity.posZ - blockPos.z);
-
-			if (isLyingInSphericalCone(coneAxis, directionVec, CONE_HALF_APERTURE)) {
-				final double distToOrigin = directionVec.lengthVector();
-				final double force = (1.0 - distToOrigin / Config.fanRange) * maxForce;
+			final double dx = entity.posX - apexX;
+			final double dy = entity.posY - apexY;
+			final double dz = entity.posZ - apexZ;
+			final double distToOrigin = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+			// NaN for entity placed exactly in apex, so it's skipped, same as before
+			final double angleToAxisCos = (dx * axisX + dy * axisY + dz * axisZ) / distToOrigin;
+			if (angleToAxisCos > COS_CONE_HALF_APERTURE) {
+				final double force = (1.0 - distToOrigin / range) * maxForce;
 				if (force <= 0) continue;
-				Vec3d normal = directionVec.normalize();
-				entity.motionX += force * normal.x;
-				entity.motionZ += force * normal.z;
+				entity.motionX += force * dx / distToOrigin;
+				entity.motionZ += force * dz / distToOrigin;
 			}
 		}
 	}
 
-	private Vec3d getConeBaseCenter(double angle) {
-		// TODO this may be semi-constant
-		return new Vec3d(pos)
-				.addVector(
-						(Math.cos(angle) * Config.fanRange),
-						0.5,
-						(Math.sin(angle) * Config.fanRange));
-	}
+	private void updateCone() {
+		final float currentAngle = getAngle();
+		final double range = Config.fanRange;
+		if (searchBox != null && currentAngle == coneAngle && range == coneRange) return;
 
-	private Vec3d getConeApex(double angle) {
-		return new Vec3d(pos)
-				.addVector(
-						0.5 - Math.cos(angle) * 1.1,
-						0.5,
-						0.5 - Math.sin(angle) * 1.1);
-	}
+		coneAngle = currentAngle;
+		coneRange = range;
+
+		final double angle = Math.toRadians(currentAngle - 90);
+		final double cos = Math.cos(angle);
+		final double sin = Math.sin(angle);
+
+		apexX = pos.getX() + 0.5 - cos * 1.1;
+		apexY = pos.getY() + 0.5;
+		apexZ = pos.getZ() + 0.5 - sin * 1.1;
+
+		final double baseX = pos.getX() + cos * range;
+		final double baseY = pos.getY() + 0.5;
+		final double baseZ = pos.getZ() + sin * range;
+
+		final double axisLength = Math.sqrt((baseX - apexX) * (baseX - apexX) + (baseY - apexY) * (baseY - apexY) + (baseZ - apexZ) * (baseZ - apexZ));
+		axisX = (baseX - apexX) / axisLength;
+		axisY = (baseY - apexY) / axisLength;
+		axisZ = (baseZ - apexZ) / axisLength;
 
-	private AxisAlignedBB getEntitySearchBoundingBox() {
-		AxisAlignedBB boundingBox = BlockUtils.aabbOffset(pos, 0, -2, 0, +1, +3, 1);
-		return boundingBox.grow(Config.fanRange);
+		searchBox = BlockUtils.aabbOffset(pos, 0, -2, 0, +1, +3, 1).grow(range);
 	}
 
-	private static boolean isLyingInSphericalCone(Vec3d coneAxis, Vec3d originToTarget, double halfAperture) {
-		double angleToAxisCos = originToTarget.dotProduct(coneAxis) / originToTarget.lengthVector() / coneAxis.lengthVector();
-		return angleToAxisCos > Math.cos(halfAperture);
+	public EntityIndex.Stats getEntityQueryStats() {
+		return entityQueryStats;
 	}
 
 	@Override
@@ -1,19 +1,19 @@
 package openblocks.common.tileentity;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Ints;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import net.minecraft.block.Block;
 import net.minecraft.block.properties.IProperty;
@@ -32,6 +32,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.Config;
 import openblocks.common.item.ItemGuide;
 import openblocks.shapes.CoordShape;
+import openblocks.shapes.CoordShapeBuilder;
 import openblocks.shapes.GuideShape;
 import openmods.Log;
 import openmods.api.IAddAwareTile;
@@ -52,7 +53,6 @@ import openmods.sync.SyncableVarInt;
 import openmods.sync.drops.DroppableTileEntity;
 import openmods.sync.drops.StoreOnDrop;
 import openmods.utils.CollectionUtils;
-import openmods.utils.MathUtils;
 import openperipheral.api.adapter.Asynchronous;
 import openperipheral.api.adapter.method.Alias;
 import openperipheral.api.adapter.method.Arg;
@@ -125,47 +125,33 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 		COMMANDS = commands.build();
 	}
 
-	private static final Comparator<BlockPos> COMPARATOR = (o1, o2) -> {
-		{
-			// first, go from bottom to top
-			int result1 = Ints.compare(o1.getX(), o2.getX());
-			if (result1 != 0) return result1;
-		}
-
-		{
-			// then sort by angle, to make placement more intuitive
-			final double angle1 = Math.atan2(o1.getZ(), o1.getX());
-			final double angle2 = Math.atan2(o2.getZ(), o2.getX());
-
-			int result2 = Doubles.compare(angle1, angle2);
-			if (result2 != 0) return result2;
-		}
-
-		{
-			// then sort by distance, far ones first
-			final double length1 = MathUtils.lengthSq(o1.getX(), o1.getZ());
-			final double length2 = MathUtils.lengthSq(o2.getX(), o2.getZ());
+	private static final ExecutorService SHAPE_GENERATOR = Executors.newFixedThreadPool(2,
+			new ThreadFactoryBuilder().setNameFormat("OpenBlocks guide shape generator %d").setDaemon(true).build());
 
-			int result3 = Doubles.compare(length2, length1);
-			if (result3 != 0) return result3;
-		}
+	private static final int CANCEL_CHECK_MASK = 0xFFF;
 
-		// then sort by x and z to make all unique BlockPosinates are included
-		{
-			int result4 = Ints.compare(o1.getX(), o2.getX());
-			if (result4 != 0) return result4;
-		}
+	private static class GeneratedShape {
+		public final int generation;
+		public final CoordShape shape;
 
-		{
-			int result5 = Ints.compare(o1.getZ(), o2.getZ());
-			return result5;
+		public GeneratedShape(int generation, CoordShape shape) {
+			this.generation = generation;
+			this.shape = shape;
 		}
-	};
+	}
 
-	private CoordShape shape;
+	// last completed shape, also read by asynchronous script calls
+	private volatile CoordShape shape;
 	private CoordShape previousShape;
 	private CoordShape toDeleteShape;
 
+	// incremented on every request, so workers can notice they are superseded
+	private final AtomicInteger shapeGeneration = new AtomicInteger();
+	private final AtomicReference<GeneratedShape> generatedShape = new AtomicReference<>();
+	private int installedGeneration;
+
+	private EntityPlayer blockCountReceiver;
+
 	private float timeSinceChange = 0;
 	private AxisAlignedBB renderAABB;
 
@@ -291,8 +277,8 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 	@Asynchronous
 	@ScriptCallable(returnTypes = ReturnType.NUMBER)
 	public int getCount() {
-		if (shape == null) recreateShape();
-		return shape.size();
+		final CoordShape shape = this.shape;
+		return shape != null? shape.size() : 0;
 	}
 
 	@Asynchronous
@@ -345,21 +331,21 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 		incrementMode();
 
 		displayModeChange(player);
-		displayBlockCount(player);
+		blockCountReceiver = player;
 	}
 
 	private void decrementMode(EntityPlayer player) {
 		decrementMode();
 
 		displayModeChange(player);
-		displayBlockCount(player);
+		blockCountReceiver = player;
 	}
 
 	private void displayModeChange(EntityPlayer player) {
 		player.sendMessage(new TextComponentTranslation("openblocks.misc.change_mode", getCurrentMode().getLocalizedName()));
 	}
 
-	private void displayBlockCount(EntityPlayer player) {
+	private static void displayBlockCount(EntityPlayer player, CoordShape shape) {
 		player.sendMessage(new TextComponentTranslation("openblocks.misc.total_blocks", shape.size()));
 	}
 
@@ -369,6 +355,10 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 
 	@Override
 	public void update() {
+		final GeneratedShape generated = generatedShape.getAndSet(null);
+		if (generated != null && generated.generation == shapeGeneration.get()) installShape(generated.generation, generated.shape);
+		else if (shape == null && installedGeneration == shapeGeneration.get()) recreateShape();
+
 		if (world.isRemote) {
 			if (timeSinceChange < 1.0) {
 				timeSinceChange = (float)Math.min(1.0f, timeSinceChange + 0.1);
@@ -376,43 +366,77 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 		}
 	}
 
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		// cancel pending generation
+		shapeGeneration.incrementAndGet();
+	}
+
 	public float getTimeSinceChange() {
 		return timeSinceChange;
 	}
 
 	private void recreateShape() {
-		toDeleteShape = previousShape;
-		previousShape = shape;
-		shape = new CoordShape(generateShape());
-		renderAABB = null;
+		final int generation = shapeGeneration.incrementAndGet();
+		final Supplier<CoordShape> task = createShapeTask(() -> shapeGeneration.get() != generation);
+
+		SHAPE_GENERATOR.execute(() -> {
+			try {
+				final GeneratedShape result = new GeneratedShape(generation, task.get());
+				generatedShape.accumulateAndGet(result, (prev, next) -> (prev == null || prev.generation < next.generation)? next : prev);
+			} catch (CancellationException e) {
+				// superseded by newer request
+			} catch (Throwable t) {
+				Log.warn(t, "Failed to generate shape for guide %s", this);
+			}
+		});
 	}
 
-	private List<BlockPos> generateShape() {
+	private Supplier<CoordShape> createShapeTask(BooleanSupplier isCancelled) {
+		// everything that requires world access must be captured here
 		final IShapeGenerator generator = getCurrentMode().generator;
+		final int minX = -negX.get();
+		final int minY = -negY.get();
+		final int minZ = -negZ.get();
+		final int maxX = posX.get();
+		final int maxY = posY.get();
+		final int maxZ = posZ.get();
+		final Orientation orientation = getOrientation();
 
-		final Set<BlockPos> uniqueResults = Sets.newHashSet();
-		final IShapeable collector = (x, y, z) -> {
-			if (canAddCoord(x, y, z)) uniqueResults.add(new BlockPos(x, y, z));
-		};
-		generator.generateShape(-negX.get(), -negY.get(), -negZ.get(), posX.get(), posY.get(), posZ.get(), collector);
-
-		final List<BlockPos> sortedResults = Lists.newArrayList(uniqueResults);
-		Collections.sort(sortedResults, COMPARATOR);
+		return () -> {
+			final CoordShapeBuilder builder = new CoordShapeBuilder();
+			final IShapeable collector = (x, y, z) -> {
+				if (canAddCoord(x, y, z)) {
+					builder.add(x, y, z);
+					if ((builder.size() & CANCEL_CHECK_MASK) == 0 && isCancelled.getAsBoolean()) throw new CancellationException();
+				}
+			};
+			generator.generateShape(minX, minY, minZ, maxX, maxY, maxZ, collector);
 
-		final List<BlockPos> rotatedResult = Lists.newArrayList();
-		final Orientation orientation = getOrientation();
+			if (isCancelled.getAsBoolean()) throw new CancellationException();
+			return builder.build(orientation);
+		};
+	}
 
-		for (BlockPos c : sortedResults) {
-			final int tx = orientation.transformX(c.getX(), c.getY(), c.getZ());
-			final int ty = orientation.transformY(c.getX(), c.getY(), c.getZ());
-			final int tz = orientation.transformZ(c.getX(), c.getY(), c.getZ());
+	private void installShape(int generation, CoordShape newShape) {
+		installedGeneration = generation;
+		toDeleteShape = previousShape;
+		previousShape = shape;
+		shape = newShape;
+		renderAABB = null;
+		timeSinceChange = 0;
 
-			rotatedResult.add(new BlockPos(tx, ty, tz));
+		if (blockCountReceiver != null) {
+			displayBlockCount(blockCountReceiver, newShape);
+			blockCountReceiver = null;
 		}
 
-		return ImmutableList.copyOf(rotatedResult);
+		onShapeChanged(newShape);
 	}
 
+	protected void onShapeChanged(CoordShape shape) {}
+
 	protected boolean canAddCoord(int x, int y, int z) {
 		return (x != 0) || (y != 0) || (z != 0);
 	}
@@ -446,38 +470,11 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 	}
 
 	private AxisAlignedBB createRenderAABB() {
-		double minX = 0;
-		double minY = 0;
-		double minZ = 0;
-
-		double maxX = 1;
-		double maxY = 1;
-		double maxZ = 1;
-
-		if (shape != null) {
-			for (BlockPos c : shape.getCoords()) {
-				{
-					final int x = c.getX();
-					if (maxX < x) maxX = x;
-					if (minX > x) minX = x;
-				}
-
-				{
-					final int y = c.getY();
-					if (maxY < y) maxY = y;
-					if (minY > y) minY = y;
-				}
-
-				{
-					final int z = c.getZ();
-					if (maxZ < z) maxZ = z;
-					if (minZ > z) minZ = z;
-				}
-			}
-
-		}
+		if (shape == null) return new AxisAlignedBB(pos, pos.add(1, 1, 1));
 
-		return new AxisAlignedBB(pos.add(minX, minY, minZ), pos.add(maxX, maxY, maxZ));
+		final BlockPos min = shape.getMin();
+		final BlockPos max = shape.getMax();
+		return new AxisAlignedBB(pos.add(min), pos.add(Math.max(max.getX(), 1), Math.max(max.getY(), 1), Math.max(max.getZ(), 1)));
 	}
 
 	@Override
@@ -509,7 +506,8 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 		player.sendMessage(new TextComponentTranslation("openblocks.misc.change_box_size",
 				-negX.get(), -negY.get(), -negZ.get(),
 				+posX.get(), +posY.get(), +posZ.get()));
-		displayBlockCount(player);
+		// count will be sent when new shape is ready
+		blockCountReceiver = player;
 	}
 
 	private void afterDimensionsChange(EntityPlayer player) {
@@ -525,7 +523,6 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 				changes.contains(posX) || changes.contains(posY) || changes.contains(posZ) ||
 				changes.contains(mode)) {
 			recreateShape();
-			timeSinceChange = 0;
 		}
 	}
 
@@ -553,7 +550,12 @@ public class TileEntityGuide extends DroppableTileEntity implements ISyncListene
 	}
 
 	protected CoordShape getShapeSafe() {
-		if (shape == null) recreateShape();
+		if (shape == null) {
+			// nothing to fall back to, so generate on caller thread
+			final int generation = shapeGeneration.incrementAndGet();
+			installShape(generation, createShapeTask(() -> false).get());
+		}
+
 		return shape;
 	}
 
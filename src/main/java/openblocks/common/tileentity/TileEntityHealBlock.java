@@ -5,18 +5,21 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.MobEffects;
 import net.minecraft.potion.PotionEffect;
 import net.minecraft.util.ITickable;
+import openblocks.common.EntityIndex;
 import openmods.OpenMods;
 import openmods.tileentity.OpenTileEntity;
 import openmods.utils.BlockUtils;
 
 public class TileEntityHealBlock extends OpenTileEntity implements ITickable {
 
+	private final EntityIndex.Stats entityQueryStats = new EntityIndex.Stats();
+
 	@Override
 	public void update() {
 		if (world.isRemote) return;
 
 		if (OpenMods.proxy.getTicks(world) % 20 == 0) {
-			List<EntityPlayer> playersOnTop = world.getEntitiesWithinAABB(EntityPlayer.class, BlockUtils.expandAround(pos, 1, 2, 1));
+			List<EntityPlayer> playersOnTop = EntityIndex.instance.getEntities(world, EntityPlayer.class, BlockUtils.expandAround(pos, 1, 2, 1), entityQueryStats);
 			for (EntityPlayer player : playersOnTop) {
 				if (!player.capabilities.isCreativeMode) {
 					/*
@@ -35,4 +38,8 @@ public class TileEntityHealBlock extends OpenTileEntity implements ITickable {
 		}
 	}
 
+	public EntityIndex.Stats getEntityQueryStats() {
+		return entityQueryStats;
+	}
+
 }
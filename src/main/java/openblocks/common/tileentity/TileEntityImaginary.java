@@ -2,6 +2,7 @@ package openblocks.common.tileentity;
 
 import com.google.common.base.Preconditions;
 import javax.annotation.Nonnull;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.EntityEquipmentSlot;
@@ -79,6 +80,9 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 	public boolean isInverted;
 	private BlockImaginary.Shape shape;
 
+	// actual state used by renderer, reset when block or shape data changes
+	private IBlockState renderState;
+
 	@Override
 	public void readFromNBT(NBTTagCompound tag) {
 		super.readFromNBT(tag);
@@ -95,6 +99,7 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 	}
 
 	private void readShapeData(NBTTagCompound tag) {
+		renderState = null;
 		color = tag.hasKey("Color")? tag.getInteger("Color") : null;
 		isInverted = tag.getBoolean("IsInverted");
 
@@ -173,6 +178,18 @@ public class TileEntityImaginary extends OpenTileEntity implements ICustomPickIt
 		return ItemImaginary.setupValues(new ItemStack(getBlockType(), 1, dmg), color, shape, isInverted);
 	}
 
+	@Override
+	public void updateContainingBlockInfo() {
+		super.updateContainingBlockInfo();
+		renderState = null;
+	}
+
+	@SideOnly(Side.CLIENT)
+	public IBlockState getRenderState() {
+		if (renderState == null) renderState = world.getBlockState(pos).getActualState(world, pos);
+		return renderState;
+	}
+
 	public BlockImaginary.Shape getShape() {
 		return shape;
 	}
@@ -1,9 +1,9 @@
 package openblocks.common.tileentity;
 
-import com.google.common.collect.Lists;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.minecraft.block.Block;
@@ -80,6 +80,7 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 			if (changes.contains(tank)) {
 				final FluidStack fluidStack = tank.getFluid();
 				if (!isSameFluid(fluidStack)) {
+					invalidateModelStates();
 					world.markBlockRangeForRenderUpdate(pos, pos);
 					prevFluidStack = fluidStack;
 
@@ -104,13 +105,27 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		super.validate();
 
 		needsTankUpdate = true;
-		if (world.isRemote) renderLogic.initialize(world, pos);
+		if (world.isRemote) {
+			renderLogic.initialize(world, pos);
+			invalidateModelStates();
+		}
 	}
 
 	@Override
 	public void invalidate() {
 		super.invalidate();
-		if (world.isRemote) renderLogic.invalidateConnections();
+		if (world.isRemote) {
+			renderLogic.invalidateConnections();
+			invalidateModelStates();
+		} else {
+			releaseNetwork();
+		}
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		releaseNetwork();
 	}
 
 	protected TileEntityTank getNeighourTank(BlockPos pos) {
@@ -136,16 +151,41 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 
 	private boolean needsUpdate;
 
+	private TankNetwork network;
+
+	private static final AtomicLong modelStateCacheHits = new AtomicLong();
+
+	private static final AtomicLong modelStateCacheMisses = new AtomicLong();
+
+	private static class CachedModelState {
+		private final int generation;
+		private final VariantModelState state;
+
+		public CachedModelState(int generation, VariantModelState state) {
+			this.generation = generation;
+			this.state = state;
+		}
+	}
+
+	// written only on client thread, cache is read and filled from chunk render workers
+	private volatile int modelStateGeneration;
+
+	private volatile CachedModelState cachedModelState;
+
 	private final IFluidHandler tankCapabilityWrapper = new IFluidHandler() {
 
 		@Override
 		public IFluidTankProperties[] getTankProperties() {
+			if (isNetworked()) return getNetwork().getTankProperties();
 			return tank.getTankProperties();
 		}
 
 		@Override
 		public int fill(FluidStack resource, boolean doFill) {
 			if (resource == null) return 0;
+			if (isNetworked()) return getNetwork().fill(resource, doFill);
+
+			releaseNetwork();
 			FluidStack copy = resource.copy();
 			fillColumn(copy, doFill);
 
@@ -156,7 +196,9 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		@Nullable
 		public FluidStack drain(int maxDrain, boolean doDrain) {
 			if (maxDrain <= 0) return null;
+			if (isNetworked()) return getNetwork().drain(maxDrain, doDrain);
 
+			releaseNetwork();
 			FluidStack contents = tank.getFluid();
 			if (contents == null || contents.amount <= 0) return null;
 
@@ -173,7 +215,9 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		@Nullable
 		public FluidStack drain(FluidStack resource, boolean doDrain) {
 			if (resource == null) return null;
+			if (isNetworked()) return getNetwork().drain(resource, doDrain);
 
+			releaseNetwork();
 			FluidStack needed = resource.copy();
 			drainFromColumn(needed, doDrain);
 
@@ -199,6 +243,7 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 	}
 
 	public double getFluidRatio() {
+		flushNetwork();
 		return (double)tank.getFluidAmount() / (double)tank.getCapacity();
 	}
 
@@ -225,8 +270,40 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 	}
 
 	public VariantModelState getModelState() {
-		// TODO maybe cache?
-		return new NeighbourMap(world, pos, tank.getFluid()).getState();
+		// generation must be read before world, so state computed from outdated neighbours is never accepted
+		final int generation = modelStateGeneration;
+		final CachedModelState cached = cachedModelState;
+		if (cached != null && cached.generation == generation) {
+			modelStateCacheHits.incrementAndGet();
+			return cached.state;
+		}
+
+		modelStateCacheMisses.incrementAndGet();
+		final VariantModelState state = new NeighbourMap(world, pos, tank.getFluid()).getState();
+		if (world != null) cachedModelState = new CachedModelState(generation, state);
+		return state;
+	}
+
+	private void invalidateModelState() {
+		modelStateGeneration++;
+		cachedModelState = null;
+	}
+
+	// neighbour updates are not delivered on client, so tanks invalidate surrounding models on load, unload and fluid change
+	private void invalidateModelStates() {
+		// model depends on fluid in all tanks sharing face or edge with this one
+		for (BlockPos neighbourPos : BlockPos.getAllInBoxMutable(pos.add(-1, -1, -1), pos.add(+1, +1, +1))) {
+			final TileEntityTank neighbour = getNeighourTank(neighbourPos);
+			if (neighbour != null) neighbour.invalidateModelState();
+		}
+	}
+
+	public static long getModelStateCacheHits() {
+		return modelStateCacheHits.get();
+	}
+
+	public static long getModelStateCacheMisses() {
+		return modelStateCacheMisses.get();
 	}
 
 	public boolean accepts(FluidStack liquid) {
@@ -242,19 +319,77 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 	}
 
 	public IFluidTank getTank() {
+		flushNetwork();
 		return tank;
 	}
 
 	public NBTTagCompound getItemNBT() {
+		flushNetwork();
 		NBTTagCompound nbt = new NBTTagCompound();
 		tank.writeToNBT(nbt);
 		return nbt;
 	}
 
+	@Override
+	public NBTTagCompound writeToNBT(NBTTagCompound tag) {
+		flushNetwork();
+		return super.writeToNBT(tag);
+	}
+
 	@Override
 	public void onNeighbourChanged(BlockPos neighbourPos, Block neighbourBlock) {
-		forceUpdate = true;
 		needsTankUpdate = true;
+
+		if (network != null) {
+			final TileEntityTank neighbour = getNeighourTank(neighbourPos);
+			if (neighbour != null && neighbour.network != network && network.canConnect(neighbour.getConnectableFluid()))
+				network.release();
+		}
+	}
+
+	private boolean isNetworked() {
+		return Config.shouldTanksUpdate && world != null && !world.isRemote;
+	}
+
+	private TankNetwork getNetwork() {
+		if (network == null || !network.isValid()) network = TankNetwork.create(this);
+		return network;
+	}
+
+	void setNetwork(TankNetwork network) {
+		this.network = network;
+	}
+
+	// network distributes fluid to tanks only after larger changes, so direct reads of tank contents must flush it first
+	private void flushNetwork() {
+		if (network != null) network.flush();
+	}
+
+	void releaseNetwork() {
+		if (network != null) {
+			network.release();
+			network = null;
+		}
+	}
+
+	FluidStack getConnectableFluid() {
+		return (network != null && network.isValid())? network.getFluid() : tank.getFluid();
+	}
+
+	void updateFromNetwork(FluidStack fluid, int amount) {
+		final FluidStack current = tank.getFluid();
+		if (amount <= 0 || fluid == null) {
+			if (current == null) return;
+			tank.setFluid(null);
+		} else {
+			if (current != null && current.amount == amount && current.isFluidEqual(fluid)) return;
+			final FluidStack updated = fluid.copy();
+			updated.amount = amount;
+			tank.setFluid(updated);
+		}
+
+		tankChanged();
+		forceUpdate = true;
 	}
 
 	@Override
@@ -270,11 +405,6 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		return (neighbor instanceof TileEntityTank && !neighbor.isInvalid())? (TileEntityTank)neighbor : null;
 	}
 
-	private TileEntityTank getTankInDirection(EnumFacing direction) {
-		final TileEntity neighbor = getTileInDirection(direction);
-		return getValidTank(neighbor);
-	}
-
 	public TileEntityTank getTankInDirection(int dx, int dy, int dz) {
 		final TileEntity neighbor = getTileEntity(this.pos.add(dx, dy, dz));
 		return getValidTank(neighbor);
@@ -299,6 +429,7 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 	}
 
 	protected boolean tryDrainXp(EntityPlayer player) {
+		flushNetwork();
 		final FluidStack fluid = tank.getFluid();
 		final Optional<IFluidXpConverter> maybeConverter = FluidXpUtils.getConverter(fluid);
 		if (maybeConverter.isPresent()) {
@@ -341,26 +472,23 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		ticksSinceLastSync++;
 		ticksSinceLastUpdate++;
 
-		if (Config.shouldTanksUpdate && !world.isRemote && forceUpdate) {
-			if (needsTankUpdate) {
-				tank.updateNeighbours(world, pos);
-				needsTankUpdate = false;
-			}
-
-			forceUpdate = false;
+		if (!world.isRemote) {
+			if (Config.shouldTanksUpdate) {
+				if (needsTankUpdate) {
+					tank.updateNeighbours(world, pos);
+					needsTankUpdate = false;
+				}
 
-			FluidStack contents = tank.getFluid();
-			if (contents != null && contents.amount > 0 && pos.getY() > 0) {
-				tryFillBottomTank(contents);
-				contents = tank.getFluid();
+				getNetwork().update(world.getTotalWorldTime());
+			} else {
+				releaseNetwork();
 			}
 
-			if (contents != null && contents.amount > 0) {
-				tryBalanceNeighbors(contents);
+			if (forceUpdate) {
+				forceUpdate = false;
+				needsSync = true;
+				markUpdated();
 			}
-
-			needsSync = true;
-			markUpdated();
 		}
 
 		if (needsSync && !world.isRemote && ticksSinceLastSync > SYNC_THRESHOLD) {
@@ -377,51 +505,6 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		if (world.isRemote) renderLogic.validateConnections(world, getPos());
 	}
 
-	private void tryGetNeighbor(List<TileEntityTank> result, FluidStack fluid, EnumFacing side) {
-		TileEntityTank neighbor = getTankInDirection(side);
-		if (neighbor != null && neighbor.accepts(fluid)) result.add(neighbor);
-	}
-
-	private void tryBalanceNeighbors(FluidStack contents) {
-		List<TileEntityTank> neighbors = Lists.newArrayList();
-		tryGetNeighbor(neighbors, contents, EnumFacing.NORTH);
-		tryGetNeighbor(neighbors, contents, EnumFacing.SOUTH);
-		tryGetNeighbor(neighbors, contents, EnumFacing.EAST);
-		tryGetNeighbor(neighbors, contents, EnumFacing.WEST);
-
-		final int count = neighbors.size();
-		if (count == 0) return;
-
-		int sum = contents.amount;
-		for (TileEntityTank n : neighbors)
-			sum += n.tank.getFluidAmount();
-
-		final int suggestedAmount = sum / (count + 1);
-		if (Math.abs(suggestedAmount - contents.amount) < Config.tankFluidUpdateThreshold) return; // Don't balance small amounts to reduce server load
-
-		FluidStack suggestedStack = contents.copy();
-		suggestedStack.amount = suggestedAmount;
-
-		for (TileEntityTank n : neighbors) {
-			int amount = n.tank.getFluidAmount();
-			int diff = amount - suggestedAmount;
-			if (diff != 1 && diff != 0 && diff != -1) {
-				n.tank.setFluid(suggestedStack.copy());
-				n.tankChanged();
-				sum -= suggestedAmount;
-				n.forceUpdate = true;
-			} else {
-				sum -= amount;
-			}
-		}
-
-		FluidStack s = tank.getFluid();
-		if (sum != s.amount) {
-			s.amount = sum;
-			tankChanged();
-		}
-	}
-
 	private void notifyNeigbours() {
 		needsUpdate = true;
 	}
@@ -436,14 +519,6 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 		forceUpdate = true;
 	}
 
-	private void tryFillBottomTank(FluidStack fluid) {
-		TileEntity te = world.getTileEntity(pos.down());
-		if (te instanceof TileEntityTank) {
-			int amount = ((TileEntityTank)te).internalFill(fluid, true);
-			if (amount > 0) internalDrain(amount, true);
-		}
-	}
-
 	private FluidStack internalDrain(int amount, boolean doDrain) {
 		FluidStack drained = tank.drain(amount, doDrain);
 		if (drained != null && doDrain) markContentsUpdated();
@@ -494,6 +569,7 @@ public class TileEntityTank extends SyncedTileEntity implements IActivateAwareTi
 	public void addHarvestDrops(EntityPlayer player, List<ItemStack> drops, IBlockState blockState, int fortune, boolean isSilkTouch) {
 		ItemStack stack = new ItemStack(OpenBlocks.Blocks.tank);
 
+		flushNetwork();
 		if (tank.getFluidAmount() > 0) {
 			NBTTagCompound tankTag = getItemNBT();
 			NBTTagCompound itemTag = ItemUtils.getItemTag(stack);
@@ -1,10 +1,11 @@
 package openblocks.common.tileentity;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import net.minecraft.block.Block;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
@@ -18,7 +19,9 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.ITickable;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
@@ -26,6 +29,8 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
 import openblocks.OpenBlocks;
 import openblocks.client.gui.GuiVacuumHopper;
+import openblocks.common.BlockChangeWatcher;
+import openblocks.common.EntityIndex;
 import openblocks.common.FluidXpUtils;
 import openblocks.common.container.ContainerVacuumHopper;
 import openblocks.common.entity.EntityItemProjectile;
@@ -62,6 +67,56 @@ import openmods.utils.bitmap.IWriteableBitMap;
 @RegisterFixer(GenericInventoryTeFixerWalker.class)
 public class TileEntityVacuumHopper extends SyncedTileEntity implements IInventoryProvider, IActivateAwareTile, IHasGui, INeighbourAwareTile, ITickable {
 
+	public static class HopperCounts {
+		private long tick;
+		private int activeInTick;
+		private int activeInPrevTick;
+		private int dormant;
+
+		private void markActive(long tick) {
+			if (tick != this.tick) {
+				activeInPrevTick = (tick == this.tick + 1)? activeInTick : 0;
+				activeInTick = 0;
+				this.tick = tick;
+			}
+			activeInTick++;
+		}
+
+		// counts from last completed tick
+		public int getActive(long currentTick) {
+			if (currentTick == tick) return activeInPrevTick;
+			if (currentTick == tick + 1) return activeInTick;
+			return 0;
+		}
+
+		public int getDormant() {
+			return dormant;
+		}
+	}
+
+	private static final Map<World, HopperCounts> COUNTS = new MapMaker().weakKeys().makeMap();
+
+	private static final int DORMANT_PROBE_INTERVAL = 40;
+
+	private static HopperCounts getCounts(World world) {
+		HopperCounts result = COUNTS.get(world);
+		if (result == null) {
+			result = new HopperCounts();
+			COUNTS.put(world, result);
+		}
+		return result;
+	}
+
+	public static int getActiveHoppers(World world) {
+		final HopperCounts counts = COUNTS.get(world);
+		return counts != null? counts.getActive(world.getTotalWorldTime()) : 0;
+	}
+
+	public static int getDormantHoppers(World world) {
+		final HopperCounts counts = COUNTS.get(world);
+		return counts != null? counts.getDormant() : 0;
+	}
+
 	public static final int TANK_CAPACITY = FluidXpUtils.xpJuiceConverter.xpToFluid(EnchantmentUtils.getExperienceForLevel(5));
 
 	public static final String OUTPUT_ITEMS = "items";
@@ -75,6 +130,20 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 
 	private boolean needsTankUpdate;
 
+	private boolean isDormant;
+
+	private boolean wakeRequested;
+
+	private boolean hadWork;
+
+	private boolean forceOutput;
+
+	private int dormantTankAmount;
+
+	private int probeCountdown;
+
+	private BlockChangeWatcher.Watch dormantWatch;
+
 	private final GenericInventory inventory = registerInventoryCallback(new TileEntityInventory(this, "vacuumhopper", true, 10));
 
 	@IncludeInterface(ISidedInventory.class)
@@ -86,6 +155,8 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 
 	private Map<String, String> outputState = ImmutableMap.of();
 
+	private final EntityIndex.Stats entityQueryStats = new EntityIndex.Stats();
+
 	@Override
 	protected void createSyncedFields() {
 		tank = new SyncableTank(TANK_CAPACITY, OpenBlocks.Fluids.xpJuice);
@@ -95,6 +166,8 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 	}
 
 	public TileEntityVacuumHopper() {
+		inventory.addCallback((inv, slot) -> wakeUp());
+
 		sided.registerAllSlots(itemOutputs, false, true);
 
 		itemHandlerCapability.registerAllSlots(itemOutputs, false, true);
@@ -108,6 +181,7 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 			@Override
 			public void onSync(Set<ISyncableObject> changes) {
 				if (changes.contains(xpOutputs) || changes.contains(itemOutputs)) {
+					wakeUp();
 					updateOutputStates();
 					world.markBlockRangeForRenderUpdate(pos, pos);
 				}
@@ -177,13 +251,95 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 
 		if (world.isRemote) {
 			spawnParticle(EnumParticleTypes.PORTAL, world.rand.nextDouble() - 0.5, world.rand.nextDouble() - 1.0, world.rand.nextDouble() - 0.5);
+			pullEntities();
+			return;
 		}
 
-		List<Entity> interestingItems = world.getEntitiesWithinAABB(Entity.class, getBB().grow(3), entitySelector);
+		if (isDormant) {
+			if (!shouldWake()) return;
+			setDormant(false);
+			forceOutput = true;
+		}
+
+		getCounts(world).markActive(world.getTotalWorldTime());
+
+		boolean needsSync = pullEntities();
+
+		if (forceOutput || OpenMods.proxy.getTicks(world) % 10 == 0) {
+			forceOutput = false;
+			if (outputToNeighbors() > 0) hadWork = true;
+			needsSync = true;
+
+			// nothing pulled or pushed since last output - sleep until something changes
+			if (!hadWork) setDormant(true);
+			hadWork = false;
+		}
+
+		if (needsSync) sync();
+	}
+
+	private boolean pullEntities() {
+		final AxisAlignedBB searchArea = getBB().grow(3);
+		final List<EntityItem> items = EntityIndex.instance.getEntities(world, EntityItem.class, searchArea, entitySelector, entityQueryStats);
+		final List<EntityXPOrb> orbs = EntityIndex.instance.getEntities(world, EntityXPOrb.class, searchArea, entitySelector, entityQueryStats);
+		if (canAcceptAny(items) || canAcceptAny(orbs)) hadWork = true;
 
 		boolean needsSync = false;
+		needsSync |= attractEntities(items);
+		needsSync |= attractEntities(orbs);
+		return needsSync;
+	}
+
+	// entities that can't be stored (like when inventory is full) are still attracted, but are no reason to stay awake
+	private boolean canAcceptAny(List<? extends Entity> entities) {
+		for (Entity entity : entities) {
+			if (entity instanceof EntityItem) {
+				final ItemStack stack = ((EntityItem)entity).getItem();
+				if (ItemHandlerHelper.insertItem(inventory.getHandler(), stack, true).getCount() < stack.getCount()) return true;
+			} else if (entity instanceof EntityXPOrb) {
+				if (tank.getSpace() > 0) return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean shouldWake() {
+		return wakeRequested || tank.getFluidAmount() != dormantTankAmount || --probeCountdown <= 0;
+	}
+
+	private void wakeUp() {
+		wakeRequested = true;
+	}
+
+	private void setDormant(boolean dormant) {
+		if (dormant == isDormant) return;
+		isDormant = dormant;
+
+		final HopperCounts counts = getCounts(world);
+		if (dormant) {
+			counts.dormant++;
+			wakeRequested = false;
+			dormantTankAmount = tank.getFluidAmount();
+			probeCountdown = DORMANT_PROBE_INTERVAL;
+			dormantWatch = BlockChangeWatcher.instance.watchEntities(world, pos.add(-3, -3, -3), pos.add(3, 3, 3), entity -> wakeUp());
+		} else {
+			counts.dormant--;
+			if (dormantWatch != null) {
+				dormantWatch.remove();
+				dormantWatch = null;
+			}
+		}
+	}
 
-		for (Entity entity : interestingItems) {
+	public boolean isDormant() {
+		return isDormant;
+	}
+
+	private boolean attractEntities(List<? extends Entity> entities) {
+		boolean needsSync = false;
+
+		for (Entity entity : entities) {
 			double dx = (pos.getX() + 0.5D - entity.posX);
 			double dy = (pos.getY() + 0.5D - entity.posY);
 			double dz = (pos.getZ() + 0.5D - entity.posZ);
@@ -204,36 +360,36 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 
 		}
 
-		if (!world.isRemote) {
-			needsSync |= outputToNeighbors();
-			if (needsSync) sync();
-		}
+		return needsSync;
 	}
 
-	private boolean outputToNeighbors() {
-		if (OpenMods.proxy.getTicks(world) % 10 == 0) {
-			if (needsTankUpdate) {
-				tank.updateNeighbours(world, pos);
-				needsTankUpdate = false;
-			}
+	public EntityIndex.Stats getEntityQueryStats() {
+		return entityQueryStats;
+	}
 
-			tank.distributeToSides(50, world, pos, xpOutputs.getValue());
-			autoInventoryOutput();
-			return true;
+	private int outputToNeighbors() {
+		if (needsTankUpdate) {
+			tank.updateNeighbours(world, pos);
+			needsTankUpdate = false;
 		}
 
-		return false;
+		final int tankAmount = tank.getFluidAmount();
+		tank.distributeToSides(50, world, pos, xpOutputs.getValue());
+		return (tankAmount - tank.getFluidAmount()) + autoInventoryOutput();
 	}
 
-	private void autoInventoryOutput() {
+	private int autoInventoryOutput() {
 		final boolean outputSides = itemOutputs.getValue().isEmpty();
-		if (outputSides) return;
+		if (outputSides) return 0;
 		final ItemMover mover = new ItemMover(world, pos).breakAfterFirstTry().randomizeSides().setSides(itemOutputs.getValue());
 		for (int i = 0; i < inventory.getSizeInventory(); i++) {
 			if (!inventory.getStackInSlot(i).isEmpty()) {
-				if (mover.pushFromSlot(inventory.getHandler(), i) > 0) break;
+				final int moved = mover.pushFromSlot(inventory.getHandler(), i);
+				if (moved > 0) return moved;
 			}
 		}
+
+		return 0;
 	}
 
 	@Override
@@ -309,9 +465,22 @@ public class TileEntityVacuumHopper extends SyncedTileEntity implements IInvento
 		this.needsTankUpdate = true;
 	}
 
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		setDormant(false);
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		setDormant(false);
+	}
+
 	@Override
 	public void onNeighbourChanged(BlockPos neighbourPos, Block neighbourBlock) {
 		this.needsTankUpdate = true;
+		wakeUp();
 	}
 
 	public Map<String, String> getOutputState() {
@@ -1,13 +1,15 @@
 package openblocks.common.tileentity;
 
-import com.google.common.collect.Lists;
-import com.google.common.primitives.Ints;
+import com.google.common.collect.MapMaker;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.village.Village;
+import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import openblocks.OpenBlocks;
@@ -20,6 +22,69 @@ public class TileEntityVillageHighlighter extends SyncedTileEntity implements IT
 
 	public static int VALUES_PER_VILLAGE = 7;
 
+	// Villages are copied once per tick and shared by all highlighters in world
+	private static class VillageSnapshot {
+		private final long tick;
+		private final int count;
+		private final int[] radius;
+		private final int[] centerX;
+		private final int[] centerY;
+		private final int[] centerZ;
+		private final int[] doors;
+		private final int[] villagers;
+		private final int[] ids;
+
+		public VillageSnapshot(long tick, List<Village> villages) {
+			this.tick = tick;
+			this.count = villages.size();
+			this.radius = new int[count];
+			this.centerX = new int[count];
+			this.centerY = new int[count];
+			this.centerZ = new int[count];
+			this.doors = new int[count];
+			this.villagers = new int[count];
+			this.ids = new int[count];
+
+			for (int i = 0; i < count; i++) {
+				final Village village = villages.get(i);
+				radius[i] = village.getVillageRadius();
+				final BlockPos center = village.getCenter();
+				centerX[i] = center.getX();
+				centerY[i] = center.getY();
+				centerZ[i] = center.getZ();
+				doors[i] = village.getNumVillageDoors();
+				villagers[i] = village.getNumVillagers();
+				ids[i] = System.identityHashCode(village);
+			}
+		}
+
+		// same as Village.isBlockPosWithinSqVillageRadius
+		public boolean contains(int village, BlockPos pos) {
+			final double dx = centerX[village] - pos.getX();
+			final double dy = centerY[village] - pos.getY();
+			final double dz = centerZ[village] - pos.getZ();
+			final int r = radius[village];
+			return dx * dx + dy * dy + dz * dz < r * r;
+		}
+
+		public boolean canBreed(int village) {
+			return villagers[village] < (int)(doors[village] * 0.35D);
+		}
+	}
+
+	private static final Map<World, VillageSnapshot> snapshots = new MapMaker().weakKeys().makeMap();
+
+	private static VillageSnapshot getSnapshot(World world) {
+		final long tick = world.getTotalWorldTime();
+		VillageSnapshot snapshot = snapshots.get(world);
+		if (snapshot == null || snapshot.tick != tick) {
+			snapshot = new VillageSnapshot(tick, world.villageCollection.getVillageList());
+			snapshots.put(world, snapshot);
+		}
+
+		return snapshot;
+	}
+
 	private SyncableIntArray villageData;
 
 	private boolean previousBreedStatus = false;
@@ -34,26 +99,42 @@ public class TileEntityVillageHighlighter extends SyncedTileEntity implements IT
 	@Override
 	public void update() {
 		if (!world.isRemote) {
-			if (OpenMods.proxy.getTicks(world) % 10 == 0 && isEnabled()) {
-				List<Integer> tmpDataList = Lists.newArrayList();
-				for (Village village : world.villageCollection.getVillageList()) {
-					if (village.isBlockPosWithinSqVillageRadius(pos)) {
-						tmpDataList.add(village.getVillageRadius());
-						BlockPos d = village.getCenter().subtract(pos);
-						tmpDataList.add(d.getX());
-						tmpDataList.add(d.getY());
-						tmpDataList.add(d.getZ());
-						tmpDataList.add(village.getNumVillageDoors());
-						tmpDataList.add(village.getNumVillagers());
-						tmpDataList.add(System.identityHashCode(village));
+			if (OpenMods.proxy.getTicks(world) % 10 == 0) {
+				final VillageSnapshot snapshot = getSnapshot(world);
+
+				int matching = 0;
+				boolean canBreed = false;
+				for (int i = 0; i < snapshot.count; i++) {
+					if (snapshot.contains(i, pos)) {
+						matching++;
+						canBreed |= snapshot.canBreed(i);
+					}
+				}
+
+				if (isEnabled()) {
+					final int[] newData = new int[matching * VALUES_PER_VILLAGE];
+					int offset = 0;
+					for (int i = 0; i < snapshot.count; i++) {
+						if (snapshot.contains(i, pos)) {
+							newData[offset++] = snapshot.radius[i];
+							newData[offset++] = snapshot.centerX[i] - pos.getX();
+							newData[offset++] = snapshot.centerY[i] - pos.getY();
+							newData[offset++] = snapshot.centerZ[i] - pos.getZ();
+							newData[offset++] = snapshot.doors[i];
+							newData[offset++] = snapshot.villagers[i];
+							newData[offset++] = snapshot.ids[i];
+						}
+					}
+
+					if (!Arrays.equals(newData, villageData.getValue())) {
+						villageData.setValue(newData);
+						sync();
 					}
 				}
-				villageData.setValue(Ints.toArray(tmpDataList));
-				sync();
-				boolean canBreed = canVillagersBreed();
+
 				if (previousBreedStatus != canBreed) {
-					world.notifyNeighborsOfStateChange(pos, OpenBlocks.Blocks.villageHighlighter, false);
 					previousBreedStatus = canBreed;
+					world.notifyNeighborsOfStateChange(pos, OpenBlocks.Blocks.villageHighlighter, false);
 				}
 			}
 		}
@@ -82,14 +163,8 @@ public class TileEntityVillageHighlighter extends SyncedTileEntity implements IT
 
 	public boolean canVillagersBreed() {
 		if (world.isRemote) return false;
-
-		for (Village village : world.villageCollection.getVillageList()) {
-			if (village.isBlockPosWithinSqVillageRadius(pos)) {
-				int i = (int)(village.getNumVillageDoors() * 0.35D);
-				if (village.getNumVillagers() < i) { return true; }
-			}
-		}
-		return false;
+		// refreshed with village data
+		return previousBreedStatus;
 	}
 
 	public int getSignalStrength() {
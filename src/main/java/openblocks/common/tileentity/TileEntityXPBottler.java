@@ -63,6 +63,11 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 
 	private boolean needsTankUpdate;
 
+	// side and auto slot configuration is changed over RPC, without explicit sync
+	private final SyncThrottle syncThrottle = new SyncThrottle(TileEntityXPBottler.class, SyncThrottle.DEFAULT_WINDOW, 20);
+
+	private ItemMover itemMover;
+
 	public static enum Slots {
 		input,
 		output
@@ -94,6 +99,8 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 	private SyncableFlags automaticSlots;
 	private SyncableTank tank;
 
+	private final FluidXpUtils.ConverterCache xpConverter = new FluidXpUtils.ConverterCache();
+
 	private final WorkerLogic logic = new WorkerLogic(progress, PROGRESS_TICKS);
 
 	private final SidedFluidCapabilityWrapper tankCapability = SidedFluidCapabilityWrapper.wrap(tank, xpSides, false, true);
@@ -157,14 +164,16 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 				tank.fillFromSides(10, world, pos, xpSides.getValue());
 			}
 
-			final ItemMover mover = new ItemMover(world, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+			if (shouldAutoOutput() || shouldAutoInput()) {
+				final ItemMover mover = getItemMover();
 
-			if (shouldAutoOutput() && hasOutputStack()) {
-				mover.setSides(xpBottleSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
-			}
+				if (shouldAutoOutput() && hasOutputStack()) {
+					mover.setSides(xpBottleSides.getValue()).pushFromSlot(inventory.getHandler(), Slots.output.ordinal());
+				}
 
-			if (shouldAutoInput() && !hasGlassInInput()) {
-				mover.setSides(glassSides.getValue()).pullToSlot(inventory.getHandler(), Slots.input.ordinal());
+				if (shouldAutoInput() && !hasGlassInInput()) {
+					mover.setSides(glassSides.getValue()).pullToSlot(inventory.getHandler(), Slots.input.ordinal());
+				}
 			}
 
 			logic.checkWorkCondition(hasSpaceInOutput() && hasGlassInInput() && hasEnoughFluid());
@@ -174,7 +183,7 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 				inventory.decrStackSize(Slots.input.ordinal(), 1);
 
 				final FluidStack tankContents = tank.getFluid();
-				final Optional<IFluidXpConverter> maybeConverter = FluidXpUtils.getConverter(tankContents);
+				final Optional<IFluidXpConverter> maybeConverter = xpConverter.getConverter(tankContents);
 				if (maybeConverter.isPresent()) {
 					final IFluidXpConverter converter = maybeConverter.get();
 					tank.drain(converter.xpToFluid(FluidXpUtils.XP_PER_BOTTLE), true);
@@ -191,10 +200,16 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 				inventory.onInventoryChanged(Slots.output.ordinal());
 			}
 
-			sync();
+			final long syncState = ((long)progress.get() << 32) | tank.getFluidAmount();
+			if (syncThrottle.shouldSync(world.getTotalWorldTime(), syncState)) sync();
 		}
 	}
 
+	private ItemMover getItemMover() {
+		if (itemMover == null) itemMover = new ItemMover(world, pos).breakAfterFirstTry().randomizeSides().setMaxSize(1);
+		return itemMover;
+	}
+
 	@Override
 	public Object getServerGui(EntityPlayer player) {
 		return new ContainerXPBottler(player.inventory, this);
@@ -239,7 +254,7 @@ public class TileEntityXPBottler extends SyncedTileEntity implements IInventoryP
 
 	private boolean hasEnoughFluid() {
 		final FluidStack contents = tank.getFluid();
-		final Optional<IFluidXpConverter> converter = FluidXpUtils.getConverter(contents);
+		final Optional<IFluidXpConverter> converter = xpConverter.getConverter(contents);
 		return converter.isPresent() && converter.get().fluidToXp(contents.amount) >= FluidXpUtils.XP_PER_BOTTLE;
 	}
 
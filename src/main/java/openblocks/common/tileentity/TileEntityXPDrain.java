@@ -11,6 +11,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import openblocks.OpenBlocks;
+import openblocks.common.EntityIndex;
 import openblocks.common.FluidXpUtils;
 import openmods.OpenMods;
 import openmods.tileentity.OpenTileEntity;
@@ -20,6 +21,8 @@ import openmods.utils.EnchantmentUtils;
 
 public class TileEntityXPDrain extends OpenTileEntity implements ITickable {
 
+	private final EntityIndex.Stats entityQueryStats = new EntityIndex.Stats();
+
 	@Override
 	public void update() {
 		if (!world.isRemote) {
@@ -88,11 +91,15 @@ public class TileEntityXPDrain extends OpenTileEntity implements ITickable {
 	}
 
 	protected List<EntityPlayer> getPlayersOnGrid() {
-		return world.getEntitiesWithinAABB(EntityPlayer.class, BlockUtils.singleBlock(pos));
+		return EntityIndex.instance.getEntities(world, EntityPlayer.class, BlockUtils.singleBlock(pos), entityQueryStats);
 	}
 
 	protected List<EntityXPOrb> getXPOrbsOnGrid() {
-		return world.getEntitiesWithinAABB(EntityXPOrb.class, BlockUtils.aabbOffset(pos, 0, 0, 0, 1, 0.3, 1));
+		return EntityIndex.instance.getEntities(world, EntityXPOrb.class, BlockUtils.aabbOffset(pos, 0, 0, 0, 1, 0.3, 1), entityQueryStats);
+	}
+
+	public EntityIndex.Stats getEntityQueryStats() {
+		return entityQueryStats;
 	}
 
 }
@@ -29,9 +29,13 @@ public class TileEntityXPShower extends SyncedTileEntity implements ITickable {
 
 	private GenericTank bufferTank = new GenericTank(Fluid.BUCKET_VOLUME, FluidXpUtils.getAcceptedFluids());
 
+	private final FluidXpUtils.ConverterCache xpConverter = new FluidXpUtils.ConverterCache();
+
 	private SyncableBoolean particleSpawnerActive;
 	private int particleSpawnTimer = 0;
 
+	private final SyncThrottle syncThrottle = new SyncThrottle(TileEntityXPShower.class);
+
 	@Override
 	protected void createSyncedFields() {
 		particleSpawnerActive = new SyncableBoolean();
@@ -47,32 +51,37 @@ public class TileEntityXPShower extends SyncedTileEntity implements ITickable {
 	}
 
 	private void trySpawnXpOrbs() {
-		boolean hasSpawnedParticle = false;
-		if (OpenMods.proxy.getTicks(world) % ORB_SPAWN_FREQUENCY == 0 && isPowered()) {
-			bufferTank.fillFromSide(DRAIN_PER_CYCLE, world, pos, getBack());
-
-			final FluidStack tankContents = bufferTank.getFluid();
-
-			final Optional<IFluidXpConverter> maybeConverter = FluidXpUtils.getConverter(tankContents);
-			if (maybeConverter.isPresent()) {
-				final IFluidXpConverter converter = maybeConverter.get();
-				final int xpInTank = converter.fluidToXp(tankContents.amount);
-				// Note: following never returns 0!
-				final int xpInOrb = EntityXPOrb.getXPSplit(xpInTank);
-				final int toDrain = converter.xpToFluid(xpInOrb);
-
-				if (toDrain > 0 && toDrain <= tankContents.amount) {
-					bufferTank.drain(toDrain, true);
-					hasSpawnedParticle = true;
-
-					final BlockPos p = getPos();
-					world.spawnEntity(new EntityXPOrbNoFly(world, p.getX() + 0.5, p.getY() + 0.1, p.getZ() + 0.5, xpInOrb));
-				}
-			}
+		if (OpenMods.proxy.getTicks(world) % ORB_SPAWN_FREQUENCY == 0) {
+			// only updated on spawn ticks, so state does not flicker between cycles
+			particleSpawnerActive.set(isPowered() && spawnXpOrb());
+		}
+
+		if (syncThrottle.shouldSync(world.getTotalWorldTime(), particleSpawnerActive.get()? 1 : 0)) sync();
+	}
+
+	private boolean spawnXpOrb() {
+		bufferTank.fillFromSide(DRAIN_PER_CYCLE, world, pos, getBack());
+
+		final FluidStack tankContents = bufferTank.getFluid();
+
+		final Optional<IFluidXpConverter> maybeConverter = xpConverter.getConverter(tankContents);
+		if (!maybeConverter.isPresent()) return false;
+
+		final IFluidXpConverter converter = maybeConverter.get();
+		final int xpInTank = converter.fluidToXp(tankContents.amount);
+		// Note: following never returns 0!
+		final int xpInOrb = EntityXPOrb.getXPSplit(xpInTank);
+		final int toDrain = converter.xpToFluid(xpInOrb);
+
+		if (toDrain > 0 && toDrain <= tankContents.amount) {
+			bufferTank.drain(toDrain, true);
+
+			final BlockPos p = getPos();
+			world.spawnEntity(new EntityXPOrbNoFly(world, p.getX() + 0.5, p.getY() + 0.1, p.getZ() + 0.5, xpInOrb));
+			return true;
 		}
 
-		particleSpawnerActive.set(hasSpawnedParticle);
-		sync();
+		return false;
 	}
 
 	private boolean isPowered() {
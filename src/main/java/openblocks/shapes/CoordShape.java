@@ -1,6 +1,7 @@
 package openblocks.shapes;
 
 import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.List;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.relauncher.Side;
@@ -14,18 +15,48 @@ public class CoordShape {
 	@SideOnly(Side.CLIENT)
 	private int vbo;
 
-	private final List<BlockPos> coords;
+	// x, y, z triplets
+	private final int[] coords;
 
-	public CoordShape(List<BlockPos> coords) {
+	private List<BlockPos> coordsView;
+
+	private final BlockPos min;
+
+	private final BlockPos max;
+
+	public CoordShape(int[] coords) {
 		this.coords = coords;
+
+		int minX = 0, minY = 0, minZ = 0;
+		int maxX = 0, maxY = 0, maxZ = 0;
+		for (int i = 0; i < coords.length; i += 3) {
+			minX = Math.min(minX, coords[i]);
+			maxX = Math.max(maxX, coords[i]);
+			minY = Math.min(minY, coords[i + 1]);
+			maxY = Math.max(maxY, coords[i + 1]);
+			minZ = Math.min(minZ, coords[i + 2]);
+			maxZ = Math.max(maxZ, coords[i + 2]);
+		}
+
+		this.min = new BlockPos(minX, minY, minZ);
+		this.max = new BlockPos(maxX, maxY, maxZ);
+	}
+
+	// bounds always include origin
+	public BlockPos getMin() {
+		return min;
+	}
+
+	public BlockPos getMax() {
+		return max;
 	}
 
 	@SideOnly(Side.CLIENT)
 	public int bindVBO() {
 		if (vbo == 0) {
-			ByteBuffer data = BufferUtils.createByteBuffer(coords.size() * 3 * 4);
-			for (BlockPos c : coords)
-				data.putFloat(c.getX() - 0.5f).putFloat(c.getY()).putFloat(c.getZ() - 0.5f);
+			ByteBuffer data = BufferUtils.createByteBuffer(coords.length * 4);
+			for (int i = 0; i < coords.length; i += 3)
+				data.putFloat(coords[i] - 0.5f).putFloat(coords[i + 1]).putFloat(coords[i + 2] - 0.5f);
 			data.flip();
 
 			vbo = BufferHelper.methods().glGenBuffers();
@@ -36,12 +67,38 @@ public class CoordShape {
 		return vbo;
 	}
 
+	public int getX(int index) {
+		return coords[3 * index];
+	}
+
+	public int getY(int index) {
+		return coords[3 * index + 1];
+	}
+
+	public int getZ(int index) {
+		return coords[3 * index + 2];
+	}
+
 	public List<BlockPos> getCoords() {
-		return coords;
+		if (coordsView == null) {
+			coordsView = new AbstractList<BlockPos>() {
+				@Override
+				public BlockPos get(int index) {
+					return new BlockPos(getX(index), getY(index), getZ(index));
+				}
+
+				@Override
+				public int size() {
+					return CoordShape.this.size();
+				}
+			};
+		}
+
+		return coordsView;
 	}
 
 	public int size() {
-		return coords.size();
+		return coords.length / 3;
 	}
 
 	@SideOnly(Side.CLIENT)
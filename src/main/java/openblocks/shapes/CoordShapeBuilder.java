@@ -0,0 +1,93 @@
+package openblocks.shapes;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import openmods.geometry.Orientation;
+
+public class CoordShapeBuilder {
+
+	private static final int COORD_BITS = 20;
+
+	private static final int COORD_OFFSET = 1 << (COORD_BITS - 1);
+
+	private static final long COORD_MASK = (1 << COORD_BITS) - 1;
+
+	private static final int ANGLE_BITS = 22;
+
+	private static final long ANGLE_MASK = (1 << ANGLE_BITS) - 1;
+
+	private static final int ANGLE_LAST = 4 * COORD_OFFSET;
+
+	private static final int ANGLE_ZERO = 2 * COORD_OFFSET;
+
+	private long[] keys = new long[1024];
+
+	private int count;
+
+	private static boolean isInRange(int value) {
+		return value >= -COORD_OFFSET && value < COORD_OFFSET;
+	}
+
+	// Integer key that orders z coords in column x same way as atan2(z, x), with far coords first when angle is equal
+	private static int angleKey(int x, int z) {
+		if (x > 0) return z + COORD_OFFSET;
+
+		if (x < 0) {
+			// -PI for small negative z, PI for z == 0
+			return z < 0? -z : ANGLE_LAST - z;
+		}
+
+		if (z < 0) return z + COORD_OFFSET;
+		if (z == 0) return ANGLE_ZERO;
+		return ANGLE_LAST - z;
+	}
+
+	private static int angleKeyToZ(int x, int key) {
+		if (x > 0) return key - COORD_OFFSET;
+
+		if (x < 0) return key <= COORD_OFFSET? -key : ANGLE_LAST - key;
+
+		if (key < COORD_OFFSET) return key - COORD_OFFSET;
+		if (key == ANGLE_ZERO) return 0;
+		return ANGLE_LAST - key;
+	}
+
+	public void add(int x, int y, int z) {
+		Preconditions.checkArgument(isInRange(x) && isInRange(y) && isInRange(z), "Coordinate %s,%s,%s out of range", x, y, z);
+
+		if (count == keys.length) keys = Arrays.copyOf(keys, 2 * count);
+
+		// first, go from bottom to top, then sort by angle, to make placement more intuitive
+		keys[count++] = ((long)(x + COORD_OFFSET) << (ANGLE_BITS + COORD_BITS)) |
+				((long)angleKey(x, z) << COORD_BITS) |
+				(y + COORD_OFFSET);
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public CoordShape build(Orientation orientation) {
+		Arrays.sort(keys, 0, count);
+
+		final int[] coords = new int[3 * count];
+		int size = 0;
+		long prevKey = -1;
+
+		for (int i = 0; i < count; i++) {
+			final long key = keys[i];
+			if (key == prevKey) continue;
+			prevKey = key;
+
+			final int x = (int)((key >>> (ANGLE_BITS + COORD_BITS)) & COORD_MASK) - COORD_OFFSET;
+			final int z = angleKeyToZ(x, (int)((key >>> COORD_BITS) & ANGLE_MASK));
+			final int y = (int)(key & COORD_MASK) - COORD_OFFSET;
+
+			coords[size++] = orientation.transformX(x, y, z);
+			coords[size++] = orientation.transformY(x, y, z);
+			coords[size++] = orientation.transformZ(x, y, z);
+		}
+
+		return new CoordShape(size == coords.length? coords : Arrays.copyOf(coords, size));
+	}
+}
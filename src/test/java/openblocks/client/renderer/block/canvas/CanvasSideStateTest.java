@@ -0,0 +1,73 @@
+package openblocks.client.renderer.block.canvas;
+
+import openblocks.common.StencilPattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CanvasSideStateTest {
+
+	private static final StencilPattern[] STENCILS = StencilPattern.values();
+
+	private static final TextureOrientation[] ROTATIONS = TextureOrientation.values();
+
+	private static CanvasSideState create(int seed) {
+		final CanvasSideState.Builder builder = CanvasSideState.builder().withBackground(seed);
+		builder.addLayer(STENCILS[seed % STENCILS.length], seed * 31, ROTATIONS[seed % ROTATIONS.length]);
+		builder.addLayer(STENCILS[(seed / 7) % STENCILS.length], ~seed, ROTATIONS[(seed / 3) % ROTATIONS.length]);
+		return (seed & 1) != 0? builder.withCover(STENCILS[(seed / 5) % STENCILS.length], ROTATIONS[(seed / 11) % ROTATIONS.length]) : builder.withoutCover();
+	}
+
+	private static int collectAndGetPoolSize(int limit) throws InterruptedException {
+		int size = CanvasSideState.getPoolSize();
+		for (int attempt = 0; attempt < 20 && size > limit; attempt++) {
+			System.gc();
+			Thread.sleep(50);
+			size = CanvasSideState.getPoolSize();
+		}
+		return size;
+	}
+
+	@Test
+	public void testSameCombinationIsInterned() {
+		final CanvasSideState first = create(12345);
+		final CanvasSideState second = create(12345);
+		Assert.assertSame(first, second);
+		Assert.assertNotSame(first, create(12346));
+	}
+
+	@Test
+	public void testReleasedStatesAreExpunged() throws InterruptedException {
+		final CanvasSideState kept = create(Integer.MAX_VALUE);
+
+		// creates millions of distinct combinations, none of them referenced after creation
+		for (int i = 0; i < 2000000; i++)
+			create(i);
+
+		final int size = collectAndGetPoolSize(1000);
+		System.out.println(String.format("Canvas side state pool size after 2000000 combinations: %d", size));
+		Assert.assertTrue("Pool keeps unreferenced states: " + size, size <= 1000);
+
+		// referenced state must survive collection
+		Assert.assertSame(kept, create(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testMemoryStaysFlat() throws InterruptedException {
+		final Runtime runtime = Runtime.getRuntime();
+
+		for (int i = 0; i < 500000; i++)
+			create(i);
+		collectAndGetPoolSize(1000);
+		final long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+		for (int round = 0; round < 4; round++)
+			for (int i = 0; i < 500000; i++)
+				create(round * 500000 + i + 1000000);
+		collectAndGetPoolSize(1000);
+		final long after = runtime.totalMemory() - runtime.freeMemory();
+
+		System.out.println(String.format("Heap used: %d KB after first batch, %d KB after four more", baseline / 1024, after / 1024));
+		// allow GC noise, but four times more states must not need noticeably more memory
+		Assert.assertTrue(after < baseline + 32 * 1024 * 1024);
+	}
+}
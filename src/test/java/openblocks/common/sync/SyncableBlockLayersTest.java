@@ -0,0 +1,183 @@
+package openblocks.common.sync;
+
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.network.PacketBuffer;
+import openblocks.client.renderer.block.canvas.CanvasSideState;
+import openblocks.client.renderer.block.canvas.TextureOrientation;
+import openblocks.common.StencilPattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyncableBlockLayersTest {
+
+	private static final String NAME = "layers";
+
+	private static final int OPAQUE_COLOR = 0x00FF8040;
+
+	private static final int ALPHA_COLOR = 0x80FF8040;
+
+	private static void addLayer(SyncableBlockLayers layers, StencilPattern stencil, int rotations, int color) {
+		Assert.assertTrue(layers.putStencil(stencil));
+		for (int i = 0; i < rotations; i++)
+			Assert.assertTrue(layers.rotateCover());
+		layers.applyPaint(color);
+		layers.popStencil();
+	}
+
+	// layers in all four rotations, with and without alpha
+	private static SyncableBlockLayers createLayers(boolean withCover) {
+		final SyncableBlockLayers layers = new SyncableBlockLayers();
+		layers.applyPaint(0x123456);
+		addLayer(layers, StencilPattern.CREEPER_FACE, 0, OPAQUE_COLOR);
+		addLayer(layers, StencilPattern.BORDER, 1, ALPHA_COLOR);
+		addLayer(layers, StencilPattern.STRIPES, 2, OPAQUE_COLOR);
+		addLayer(layers, StencilPattern.SPLAT, 3, ALPHA_COLOR);
+
+		if (withCover) {
+			layers.putStencil(StencilPattern.HOLE);
+			layers.rotateCover();
+			layers.rotateCover();
+		}
+
+		return layers;
+	}
+
+	private static SyncableBlockLayers nbtRoundTrip(SyncableBlockLayers layers) {
+		final NBTTagCompound tag = new NBTTagCompound();
+		layers.writeToNBT(tag, NAME);
+
+		final SyncableBlockLayers result = new SyncableBlockLayers();
+		result.readFromNBT(tag, NAME);
+		return result;
+	}
+
+	private static SyncableBlockLayers streamRoundTrip(SyncableBlockLayers layers) {
+		final PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+		layers.writeToStream(buffer);
+
+		final SyncableBlockLayers result = new SyncableBlockLayers();
+		result.readFromStream(buffer);
+		Assert.assertEquals(0, buffer.readableBytes());
+		return result;
+	}
+
+	private static void assertSameLayers(SyncableBlockLayers expected, SyncableBlockLayers actual) {
+		Assert.assertEquals(expected.convertToState(), actual.convertToState());
+		Assert.assertEquals(expected.peekStencil(), actual.peekStencil());
+	}
+
+	private static int nbtSize(NBTTagCompound tag) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CompressedStreamTools.write(tag, new DataOutputStream(bytes));
+		return bytes.size();
+	}
+
+	private static NBTTagCompound createLegacyPattern(StencilPattern stencil, TextureOrientation rotation) {
+		final NBTTagCompound tag = new NBTTagCompound();
+		tag.setString("Stencil", stencil.name());
+		tag.setByte("Rotation", (byte)rotation.ordinal());
+		return tag;
+	}
+
+	private static NBTTagCompound createLegacyLayer(StencilPattern stencil, TextureOrientation rotation, int color) {
+		final NBTTagCompound tag = createLegacyPattern(stencil, rotation);
+		tag.setInteger("Color", color);
+		return tag;
+	}
+
+	// same data as createLayers(true), in format used before packing
+	private static NBTTagCompound createLegacyTag() {
+		final NBTTagList layersTag = new NBTTagList();
+		layersTag.appendTag(createLegacyLayer(StencilPattern.CREEPER_FACE, TextureOrientation.R0, OPAQUE_COLOR));
+		layersTag.appendTag(createLegacyLayer(StencilPattern.BORDER, TextureOrientation.R90, ALPHA_COLOR));
+		layersTag.appendTag(createLegacyLayer(StencilPattern.STRIPES, TextureOrientation.R180, OPAQUE_COLOR));
+		layersTag.appendTag(createLegacyLayer(StencilPattern.SPLAT, TextureOrientation.R270, ALPHA_COLOR));
+
+		final NBTTagCompound subTag = new NBTTagCompound();
+		subTag.setInteger("Background", 0x123456);
+		subTag.setTag("Layers", layersTag);
+		subTag.setTag("Cover", createLegacyPattern(StencilPattern.HOLE, TextureOrientation.R180));
+
+		final NBTTagCompound tag = new NBTTagCompound();
+		tag.setTag(NAME, subTag);
+		return tag;
+	}
+
+	@Test
+	public void testNbtRoundTripWithCover() {
+		final SyncableBlockLayers layers = createLayers(true);
+		assertSameLayers(layers, nbtRoundTrip(layers));
+	}
+
+	@Test
+	public void testNbtRoundTripWithoutCover() {
+		final SyncableBlockLayers layers = createLayers(false);
+		assertSameLayers(layers, nbtRoundTrip(layers));
+	}
+
+	@Test
+	public void testStreamRoundTripWithCover() {
+		final SyncableBlockLayers layers = createLayers(true);
+		assertSameLayers(layers, streamRoundTrip(layers));
+	}
+
+	@Test
+	public void testStreamRoundTripWithoutCover() {
+		final SyncableBlockLayers layers = createLayers(false);
+		assertSameLayers(layers, streamRoundTrip(layers));
+	}
+
+	@Test
+	public void testEmptyRoundTrip() {
+		final SyncableBlockLayers layers = new SyncableBlockLayers();
+		assertSameLayers(layers, nbtRoundTrip(layers));
+		assertSameLayers(layers, streamRoundTrip(layers));
+	}
+
+	@Test
+	public void testLegacyNbtMigration() {
+		final SyncableBlockLayers legacy = new SyncableBlockLayers();
+		legacy.readFromNBT(createLegacyTag(), NAME);
+		assertSameLayers(createLayers(true), legacy);
+
+		final SyncableBlockLayers migrated = nbtRoundTrip(legacy);
+		assertSameLayers(legacy, migrated);
+	}
+
+	@Test
+	public void testPackedNbtIsSmaller() throws IOException {
+		final NBTTagCompound legacyTag = createLegacyTag();
+
+		final NBTTagCompound packedTag = new NBTTagCompound();
+		createLayers(true).writeToNBT(packedTag, NAME);
+
+		final int legacySize = nbtSize(legacyTag);
+		final int packedSize = nbtSize(packedTag);
+		System.out.println(String.format("Canvas side NBT size: legacy %d bytes, packed %d bytes", legacySize, packedSize));
+		Assert.assertTrue(packedSize < legacySize);
+	}
+
+	@Test
+	public void testOpaqueColorsUseShorterStream() {
+		final SyncableBlockLayers opaque = new SyncableBlockLayers();
+		addLayer(opaque, StencilPattern.CREEPER_FACE, 0, OPAQUE_COLOR);
+
+		final SyncableBlockLayers withAlpha = new SyncableBlockLayers();
+		addLayer(withAlpha, StencilPattern.CREEPER_FACE, 0, ALPHA_COLOR);
+
+		final PacketBuffer opaqueBuffer = new PacketBuffer(Unpooled.buffer());
+		opaque.writeToStream(opaqueBuffer);
+
+		final PacketBuffer alphaBuffer = new PacketBuffer(Unpooled.buffer());
+		withAlpha.writeToStream(alphaBuffer);
+
+		System.out.println(String.format("Canvas side stream size: opaque layer %d bytes, layer with alpha %d bytes", opaqueBuffer.readableBytes(), alphaBuffer.readableBytes()));
+		Assert.assertEquals(alphaBuffer.readableBytes() - 1, opaqueBuffer.readableBytes());
+	}
+}